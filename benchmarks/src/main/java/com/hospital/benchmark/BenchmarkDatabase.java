@@ -0,0 +1,251 @@
+package com.hospital.benchmark;
+
+import com.hospital.util.DBUtil;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Random;
+
+/**
+ * Points the application at a benchmark database and seeds it.
+ *
+ * By default DBUtil is configured (through system properties, which
+ * EnvUtil prefers over .env) to use an in-memory H2 database in PostgreSQL
+ * mode, seeded with a deterministic data set of the requested size. Passing
+ * -DDB_URL=jdbc:postgresql://... runs the same benchmarks against a local
+ * PostgreSQL instead; that database is used as-is and never seeded.
+ *
+ * Must be initialised before any DAO or service class touches DBUtil.
+ */
+public final class BenchmarkDatabase {
+
+    public static final String STAND_IN_URL = "jdbc:h2:mem:hospital_bench;MODE=PostgreSQL;"
+            + "DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1";
+
+    private static final String[] FIRST_NAMES = { "James", "Mary", "John", "Patricia", "Robert", "Jennifer",
+            "Michael", "Linda", "William", "Elizabeth", "David", "Barbara", "Kwame", "Ama", "Kofi", "Akosua" };
+    private static final String[] LAST_NAMES = { "Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia",
+            "Miller", "Davis", "Mensah", "Owusu", "Boateng", "Asante", "Osei", "Appiah", "Wilson", "Taylor" };
+    private static final String[] SPECIALIZATIONS = { "Cardiologist", "Neurologist", "Pediatrician",
+            "Dermatologist", "Surgeon", "Radiologist", "Oncologist", "" };
+    private static final String[] STATUSES = { "Scheduled", "Completed", "Cancelled" };
+
+    private static final int DEPARTMENTS = 5;
+    private static final int INVENTORY_ITEMS = 200;
+    private static final int ITEMS_PER_PRESCRIPTION = 3;
+    private static final int BATCH_SIZE = 1000;
+
+    private static int seededPatients = -1;
+
+    static {
+        setDefault("DB_URL", STAND_IN_URL);
+        setDefault("DB_USER", "sa");
+        setDefault("DB_PASSWORD", "");
+        if (isStandIn()) {
+            // prepareThreshold is a PostgreSQL driver setting H2 does not accept
+            setDefault("DB_PREPARE_THRESHOLD", "0");
+        }
+        setDefault("PERF_LOG_CONSOLE", "false");
+        setDefault("MONGODB_URI", "");
+    }
+
+    private BenchmarkDatabase() {
+    }
+
+    public static boolean isStandIn() {
+        return System.getProperty("DB_URL").startsWith("jdbc:h2:");
+    }
+
+    /**
+     * Recreates the stand-in schema with the given number of patients. The
+     * other tables scale from it: one doctor per 50 patients, three
+     * appointments per patient, one prescription per patient with three items
+     * each. Does nothing against a real database or when that size is already
+     * loaded.
+     */
+    public static synchronized void seed(int patients) throws SQLException {
+        if (!isStandIn() || seededPatients == patients) {
+            return;
+        }
+
+        int doctors = Math.max(10, patients / 50);
+        Random random = new Random(42);
+
+        try (Connection conn = DBUtil.getConnection()) {
+            createSchema(conn);
+            conn.setAutoCommit(false);
+            try {
+                insertDepartments(conn);
+                insertPatients(conn, patients, random);
+                insertDoctors(conn, doctors, random);
+                insertAppointments(conn, patients * 3, patients, doctors, random);
+                insertInventory(conn, random);
+                insertPrescriptions(conn, patients, patients, doctors, random);
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+        seededPatients = patients;
+    }
+
+    private static void setDefault(String key, String value) {
+        if (System.getProperty(key) == null) {
+            System.setProperty(key, value);
+        }
+    }
+
+    private static void createSchema(Connection conn) throws SQLException {
+        String script;
+        try (InputStream in = BenchmarkDatabase.class.getResourceAsStream("/bench-schema.sql")) {
+            if (in == null) {
+                throw new SQLException("bench-schema.sql not found on the classpath");
+            }
+            script = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new SQLException("Could not read bench-schema.sql", e);
+        }
+
+        try (Statement stmt = conn.createStatement()) {
+            for (String sql : script.split(";")) {
+                if (!sql.isBlank()) {
+                    stmt.execute(sql);
+                }
+            }
+        }
+    }
+
+    private static void insertDepartments(Connection conn) throws SQLException {
+        String sql = "INSERT INTO departments (name, location) VALUES (?, ?)";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (int i = 1; i <= DEPARTMENTS; i++) {
+                pstmt.setString(1, "Department " + i);
+                pstmt.setString(2, "Building " + (char) ('A' + i - 1));
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        }
+    }
+
+    private static void insertPatients(Connection conn, int count, Random random) throws SQLException {
+        String sql = "INSERT INTO patients (first_name, last_name, gender, birth_date, email, phone, address, created_at) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+        LocalDateTime now = LocalDateTime.of(2025, 1, 1, 9, 0);
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (int i = 1; i <= count; i++) {
+                pstmt.setString(1, pick(FIRST_NAMES, random));
+                pstmt.setString(2, pick(LAST_NAMES, random) + (i % 97));
+                pstmt.setString(3, random.nextBoolean() ? "Male" : "Female");
+                pstmt.setObject(4, LocalDate.of(1940, 1, 1).plusDays(random.nextInt(30_000)));
+                pstmt.setString(5, "patient" + i + "@example.com");
+                pstmt.setString(6, String.format("555-%07d", i));
+                pstmt.setString(7, i + " Main St");
+                pstmt.setTimestamp(8, Timestamp.valueOf(now.minusMinutes(random.nextInt(525_600))));
+                addToBatch(pstmt, i);
+            }
+            pstmt.executeBatch();
+        }
+    }
+
+    private static void insertDoctors(Connection conn, int count, Random random) throws SQLException {
+        String sql = "INSERT INTO doctors (first_name, last_name, specialization, email, phone, department_id, created_at) "
+                + "VALUES (?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP)";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (int i = 1; i <= count; i++) {
+                pstmt.setString(1, pick(FIRST_NAMES, random));
+                pstmt.setString(2, pick(LAST_NAMES, random));
+                pstmt.setString(3, pick(SPECIALIZATIONS, random));
+                pstmt.setString(4, "doctor" + i + "@hospital.com");
+                pstmt.setString(5, String.format("555-1%06d", i));
+                pstmt.setInt(6, 1 + random.nextInt(DEPARTMENTS));
+                addToBatch(pstmt, i);
+            }
+            pstmt.executeBatch();
+        }
+    }
+
+    private static void insertAppointments(Connection conn, int count, int patients, int doctors, Random random)
+            throws SQLException {
+        String sql = "INSERT INTO appointments (patient_id, doctor_id, appointment_date, status, notes) "
+                + "VALUES (?, ?, ?, ?, ?)";
+        LocalDateTime base = LocalDateTime.of(2025, 1, 6, 8, 0);
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (int i = 1; i <= count; i++) {
+                pstmt.setInt(1, 1 + random.nextInt(patients));
+                pstmt.setInt(2, 1 + random.nextInt(doctors));
+                pstmt.setTimestamp(3, Timestamp.valueOf(base.plusMinutes(30L * random.nextInt(20_000))));
+                pstmt.setString(4, pick(STATUSES, random));
+                pstmt.setString(5, "Follow-up visit " + i);
+                addToBatch(pstmt, i);
+            }
+            pstmt.executeBatch();
+        }
+    }
+
+    private static void insertInventory(Connection conn, Random random) throws SQLException {
+        String sql = "INSERT INTO medical_inventory (item_name, category, quantity, unit_price) VALUES (?, ?, ?, ?)";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (int i = 1; i <= INVENTORY_ITEMS; i++) {
+                pstmt.setString(1, "Medicine " + i);
+                pstmt.setString(2, i % 2 == 0 ? "Tablet" : "Syrup");
+                pstmt.setInt(3, random.nextInt(1000));
+                pstmt.setDouble(4, 1 + random.nextInt(10_000) / 100.0);
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        }
+    }
+
+    private static void insertPrescriptions(Connection conn, int count, int patients, int doctors, Random random)
+            throws SQLException {
+        String sql = "INSERT INTO prescriptions (patient_id, doctor_id, notes, prescription_date) VALUES (?, ?, ?, ?)";
+        String itemSql = "INSERT INTO prescription_items (prescription_id, inventory_id, quantity, dosage_instructions) "
+                + "VALUES (?, ?, ?, ?)";
+        LocalDateTime base = LocalDateTime.of(2025, 1, 1, 8, 0);
+        try (PreparedStatement pstmt = conn.prepareStatement(sql);
+                PreparedStatement itemStmt = conn.prepareStatement(itemSql)) {
+            for (int i = 1; i <= count; i++) {
+                pstmt.setInt(1, 1 + random.nextInt(patients));
+                pstmt.setInt(2, 1 + random.nextInt(doctors));
+                pstmt.setString(3, "Prescription " + i);
+                pstmt.setTimestamp(4, Timestamp.valueOf(base.plusMinutes(random.nextInt(525_600))));
+                addToBatch(pstmt, i);
+
+                for (int j = 0; j < ITEMS_PER_PRESCRIPTION; j++) {
+                    // Ids are sequential from 1 on a freshly created table
+                    itemStmt.setInt(1, i);
+                    itemStmt.setInt(2, 1 + random.nextInt(INVENTORY_ITEMS));
+                    itemStmt.setInt(3, 1 + random.nextInt(30));
+                    itemStmt.setString(4, "Take " + (1 + j) + " times daily");
+                    itemStmt.addBatch();
+                }
+                if (i % BATCH_SIZE == 0) {
+                    // Prescriptions of this batch were just flushed by addToBatch
+                    itemStmt.executeBatch();
+                }
+            }
+            pstmt.executeBatch();
+            itemStmt.executeBatch();
+        }
+    }
+
+    private static void addToBatch(PreparedStatement pstmt, int row) throws SQLException {
+        pstmt.addBatch();
+        if (row % BATCH_SIZE == 0) {
+            pstmt.executeBatch();
+        }
+    }
+
+    private static String pick(String[] values, Random random) {
+        return values[random.nextInt(values.length)];
+    }
+}
@@ -0,0 +1,24 @@
+package com.hospital.benchmark;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.sql.SQLException;
+
+/**
+ * Shared JMH state that seeds the benchmark database before a trial.
+ * Override the size on the command line with -p patients=50000.
+ */
+@State(Scope.Benchmark)
+public class Dataset {
+
+    @Param({ "1000", "10000" })
+    public int patients;
+
+    @Setup
+    public void seed() throws SQLException {
+        BenchmarkDatabase.seed(patients);
+    }
+}
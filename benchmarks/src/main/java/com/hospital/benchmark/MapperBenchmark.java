@@ -0,0 +1,70 @@
+package com.hospital.benchmark;
+
+import com.hospital.dao.AppointmentDAO;
+import com.hospital.dao.DoctorDAO;
+import com.hospital.dao.PatientDAO;
+import com.hospital.model.Appointment;
+import com.hospital.model.Doctor;
+import com.hospital.model.Patient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DAO reads, dominated by the ResultSet-to-model mappers. The single-row
+ * lookup shows the fixed per-query cost (pool, statement cache, round trip).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapperBenchmark {
+
+    private PatientDAO patientDAO;
+    private DoctorDAO doctorDAO;
+    private AppointmentDAO appointmentDAO;
+    private int patientCount;
+
+    @Setup
+    public void setUp(Dataset dataset) throws SQLException {
+        patientDAO = new PatientDAO();
+        doctorDAO = new DoctorDAO();
+        appointmentDAO = new AppointmentDAO();
+        patientCount = patientDAO.getPatientCount();
+    }
+
+    @Benchmark
+    public List<Patient> mapAllPatients() throws SQLException {
+        return patientDAO.getAllPatients();
+    }
+
+    @Benchmark
+    public List<Doctor> mapAllDoctors() throws SQLException {
+        return doctorDAO.getAllDoctors();
+    }
+
+    @Benchmark
+    public List<Appointment> mapAllAppointments() throws SQLException {
+        return appointmentDAO.getAllAppointments();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Patient getPatientById() throws SQLException {
+        return patientDAO.getPatientById(1 + ThreadLocalRandom.current().nextInt(patientCount));
+    }
+}
@@ -0,0 +1,69 @@
+package com.hospital.benchmark;
+
+import com.hospital.model.Patient;
+import com.hospital.service.PatientService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory work in PatientService: cache search and name sorting.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PatientServiceBenchmark {
+
+    private PatientService patientService;
+    private List<Patient> unsorted;
+
+    @Setup
+    public void setUp(Dataset dataset) throws SQLException {
+        patientService = new PatientService();
+        // Fills the service cache that searchPatientsFromCache reads
+        unsorted = new ArrayList<>(patientService.getAllPatients());
+        Collections.shuffle(unsorted, new Random(7));
+    }
+
+    @Benchmark
+    public List<Patient> searchPatientsFromCache() {
+        return patientService.searchPatientsFromCache("smi");
+    }
+
+    @Benchmark
+    public List<Patient> searchPatientsFromCacheMisspelled() {
+        return patientService.searchPatientsFromCache("jonh");
+    }
+
+    @Benchmark
+    public List<Patient> searchPatientsFromCacheNoMatch() {
+        return patientService.searchPatientsFromCache("zzz");
+    }
+
+    /**
+     * Sorts a fresh copy each time; the copy is part of the measured cost.
+     */
+    @Benchmark
+    public List<Patient> sortPatientsByName() {
+        List<Patient> copy = new ArrayList<>(unsorted);
+        patientService.sortPatientsByName(copy);
+        return copy;
+    }
+}
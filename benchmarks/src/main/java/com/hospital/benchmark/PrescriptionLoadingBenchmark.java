@@ -0,0 +1,63 @@
+package com.hospital.benchmark;
+
+import com.hospital.model.Prescription;
+import com.hospital.service.DoctorService;
+import com.hospital.service.PatientService;
+import com.hospital.service.PrescriptionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Prescription reads together with their line items.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PrescriptionLoadingBenchmark {
+
+    private PrescriptionService prescriptionService;
+    private int patientCount;
+
+    @Setup
+    public void setUp(Dataset dataset) {
+        prescriptionService = new PrescriptionService(new PatientService(), new DoctorService());
+        patientCount = dataset.patients;
+    }
+
+    @Benchmark
+    public List<Prescription> getAllPrescriptionsWithItems() throws SQLException {
+        return prescriptionService.getAllPrescriptionsWithItems();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<Prescription> getPatientPrescriptions() throws SQLException {
+        return prescriptionService.getPatientPrescriptions(1 + ThreadLocalRandom.current().nextInt(patientCount));
+    }
+
+    /**
+     * What the edit dialog loads; the dataset has one prescription per
+     * patient.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Prescription getPrescriptionWithItems() throws SQLException {
+        return prescriptionService.getPrescriptionWithItems(1 + ThreadLocalRandom.current().nextInt(patientCount));
+    }
+}
@@ -0,0 +1,73 @@
+package com.hospital.benchmark;
+
+import com.hospital.dao.DashboardDAO;
+import com.hospital.model.DashboardSnapshot;
+import com.hospital.service.AppointmentService;
+import com.hospital.service.DoctorService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dashboard statistics computed by the services.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StatisticsBenchmark {
+
+    private AppointmentService appointmentService;
+    private DoctorService doctorService;
+    private DashboardDAO dashboardDAO;
+
+    @Setup
+    public void setUp(Dataset dataset) {
+        appointmentService = new AppointmentService();
+        doctorService = new DoctorService();
+        dashboardDAO = new DashboardDAO();
+    }
+
+    @Benchmark
+    public Map<String, Integer> getAppointmentsPerDay() throws SQLException {
+        return appointmentService.getAppointmentsPerDay();
+    }
+
+    /**
+     * Always counted by the database, unlike the all-time figures above,
+     * which are served from counts maintained in memory after the first
+     * call.
+     */
+    @Benchmark
+    public Map<String, Integer> getAppointmentsPerDayInRange() throws SQLException {
+        return appointmentService.getAppointmentsPerDay(LocalDate.of(2025, 3, 1), LocalDate.of(2025, 8, 31));
+    }
+
+    @Benchmark
+    public Map<String, Integer> getDoctorSpecializationStats() throws SQLException {
+        return doctorService.getDoctorSpecializationStats();
+    }
+
+    /**
+     * The dashboard's single-query snapshot, bypassing DashboardService's
+     * cache.
+     */
+    @Benchmark
+    public DashboardSnapshot getDashboardSnapshot() throws SQLException {
+        return dashboardDAO.getSnapshot();
+    }
+}
@@ -0,0 +1,108 @@
+-- Benchmark stand-in schema: src/schema.sql in a form H2 (PostgreSQL mode)
+-- accepts, plus the created_at columns the DAOs read.
+
+DROP TABLE IF EXISTS prescription_items;
+DROP TABLE IF EXISTS prescriptions;
+DROP TABLE IF EXISTS patient_feedback;
+DROP TABLE IF EXISTS medical_inventory;
+DROP TABLE IF EXISTS appointments;
+DROP TABLE IF EXISTS doctors;
+DROP TABLE IF EXISTS patients;
+DROP TABLE IF EXISTS departments;
+
+CREATE TABLE departments (
+    id SERIAL PRIMARY KEY,
+    name VARCHAR(100) NOT NULL,
+    location VARCHAR(100)
+);
+
+CREATE TABLE patients (
+    id SERIAL PRIMARY KEY,
+    first_name VARCHAR(50) NOT NULL,
+    last_name VARCHAR(50) NOT NULL,
+    gender VARCHAR(10),
+    birth_date DATE,
+    email VARCHAR(100) UNIQUE,
+    phone VARCHAR(20),
+    address TEXT,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE doctors (
+    id SERIAL PRIMARY KEY,
+    first_name VARCHAR(50) NOT NULL,
+    last_name VARCHAR(50) NOT NULL,
+    specialization VARCHAR(100),
+    email VARCHAR(100) UNIQUE,
+    phone VARCHAR(20),
+    department_id INT,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (department_id) REFERENCES departments(id)
+);
+
+CREATE TABLE appointments (
+    id SERIAL PRIMARY KEY,
+    patient_id INT NOT NULL,
+    doctor_id INT NOT NULL,
+    appointment_date TIMESTAMP NOT NULL,
+    status VARCHAR(20) DEFAULT 'Scheduled',
+    notes TEXT,
+    FOREIGN KEY (patient_id) REFERENCES patients(id),
+    FOREIGN KEY (doctor_id) REFERENCES doctors(id)
+);
+
+CREATE TABLE medical_inventory (
+    id SERIAL PRIMARY KEY,
+    item_name VARCHAR(100) NOT NULL,
+    category VARCHAR(50),
+    quantity INT DEFAULT 0,
+    unit_price DECIMAL(10, 2),
+    last_updated TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE prescriptions (
+    id SERIAL PRIMARY KEY,
+    patient_id INT NOT NULL,
+    doctor_id INT NOT NULL,
+    appointment_id INT,
+    prescription_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    notes TEXT,
+    FOREIGN KEY (patient_id) REFERENCES patients(id),
+    FOREIGN KEY (doctor_id) REFERENCES doctors(id),
+    FOREIGN KEY (appointment_id) REFERENCES appointments(id)
+);
+
+CREATE TABLE prescription_items (
+    id SERIAL PRIMARY KEY,
+    prescription_id INT NOT NULL,
+    inventory_id INT NOT NULL,
+    quantity INT NOT NULL,
+    dosage_instructions VARCHAR(200),
+    FOREIGN KEY (prescription_id) REFERENCES prescriptions(id),
+    FOREIGN KEY (inventory_id) REFERENCES medical_inventory(id)
+);
+
+CREATE TABLE patient_feedback (
+    id SERIAL PRIMARY KEY,
+    patient_id INT NOT NULL,
+    rating INT CHECK (rating >= 1 AND rating <= 5),
+    comments TEXT,
+    feedback_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (patient_id) REFERENCES patients(id)
+);
+
+CREATE INDEX idx_patients_name ON patients(first_name, last_name);
+CREATE INDEX idx_doctors_specialization ON doctors(specialization);
+CREATE INDEX idx_appointments_date ON appointments(appointment_date);
+CREATE INDEX idx_inventory_name ON medical_inventory(item_name);
+CREATE INDEX idx_prescription_items_prescription ON prescription_items(prescription_id);
+CREATE INDEX idx_patients_last_name_id ON patients(last_name, id);
+CREATE INDEX idx_patients_first_name_id ON patients(first_name, id);
+CREATE INDEX idx_appointments_date_id ON appointments(appointment_date, id);
+CREATE INDEX idx_inventory_name_id ON medical_inventory(item_name, id);
+CREATE INDEX idx_feedback_date_id ON patient_feedback(feedback_date, id);
+CREATE INDEX idx_appointments_patient ON appointments(patient_id);
+CREATE INDEX idx_appointments_doctor_date ON appointments(doctor_id, appointment_date);
+CREATE INDEX idx_prescriptions_patient_date ON prescriptions(patient_id, prescription_date);
+CREATE INDEX idx_prescriptions_doctor_date ON prescriptions(doctor_id, prescription_date);
+CREATE INDEX idx_feedback_patient_date ON patient_feedback(patient_id, feedback_date);
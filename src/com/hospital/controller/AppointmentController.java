@@ -1,11 +1,11 @@
 package com.hospital.controller;
 
+import com.hospital.dao.AppointmentSearchCriteria;
 import com.hospital.model.Appointment;
-import com.hospital.model.Doctor;
-import com.hospital.model.Patient;
 import com.hospital.service.AppointmentService;
 import com.hospital.service.DoctorService;
 import com.hospital.service.PatientService;
+import com.hospital.service.ServiceRegistry;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -23,16 +23,25 @@ import javafx.stage.Modality;
 import java.io.IOException;
 import java.sql.SQLException;
 import java.time.LocalDateTime;
-import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
 
-public class AppointmentController {
+public class AppointmentController implements Refreshable {
+
+    private static final String ALL_STATUSES = "All Statuses";
 
     @FXML
     private TextField searchField;
     @FXML
+    private ComboBox<String> statusFilter;
+    @FXML
+    private DatePicker fromDatePicker;
+    @FXML
+    private DatePicker toDatePicker;
+    @FXML
     private TableView<Appointment> appointmentTable;
 
     @FXML
@@ -52,15 +61,16 @@ public class AppointmentController {
     private PatientService patientService;
     private DoctorService doctorService;
     private ObservableList<Appointment> appointmentList = FXCollections.observableArrayList();
+    private final AsyncLoader loader = new AsyncLoader();
 
-    // Cache for patient and doctor names
-    private Map<Integer, String> patientNameCache = new HashMap<>();
-    private Map<Integer, String> doctorNameCache = new HashMap<>();
+    private DisplayNames names;
 
     public void initialize() {
-        appointmentService = new AppointmentService();
-        patientService = new PatientService();
-        doctorService = new DoctorService();
+        appointmentService = ServiceRegistry.getAppointmentService();
+        patientService = ServiceRegistry.getPatientService();
+        doctorService = ServiceRegistry.getDoctorService();
+        names = new DisplayNames(patientService, doctorService);
+        statusFilter.setItems(FXCollections.observableArrayList(ALL_STATUSES, "Scheduled", "Completed", "Cancelled"));
         setupTableColumns();
         setupActionColumn();
         loadAppointments();
@@ -75,51 +85,17 @@ public class AppointmentController {
         // Custom cell value factories for patient and doctor names
         colPatientName.setCellValueFactory(cellData -> {
             int patientId = cellData.getValue().getPatientId();
-            String name = getPatientName(patientId);
+            String name = names.patientName(patientId);
             return new SimpleStringProperty(name);
         });
 
         colDoctorName.setCellValueFactory(cellData -> {
             int doctorId = cellData.getValue().getDoctorId();
-            String name = getDoctorName(doctorId);
+            String name = names.doctorName(doctorId);
             return new SimpleStringProperty(name);
         });
     }
 
-    private String getPatientName(int patientId) {
-        if (patientNameCache.containsKey(patientId)) {
-            return patientNameCache.get(patientId);
-        }
-        try {
-            Patient patient = patientService.getPatientById(patientId);
-            if (patient != null) {
-                String name = patient.getFirstName() + " " + patient.getLastName();
-                patientNameCache.put(patientId, name);
-                return name;
-            }
-        } catch (SQLException e) {
-            // Return ID as fallback
-        }
-        return "Patient #" + patientId;
-    }
-
-    private String getDoctorName(int doctorId) {
-        if (doctorNameCache.containsKey(doctorId)) {
-            return doctorNameCache.get(doctorId);
-        }
-        try {
-            Doctor doctor = doctorService.getDoctorById(doctorId);
-            if (doctor != null) {
-                String name = "Dr. " + doctor.getFirstName() + " " + doctor.getLastName();
-                doctorNameCache.put(doctorId, name);
-                return name;
-            }
-        } catch (SQLException e) {
-            // Return ID as fallback
-        }
-        return "Doctor #" + doctorId;
-    }
-
     /**
      * Setup action column with Edit and Delete buttons
      */
@@ -172,29 +148,47 @@ public class AppointmentController {
         }
     }
 
+    @Override
+    public void refresh() {
+        handleRefresh();
+    }
+
     private void loadAppointments() {
-        // Clear caches to refresh names
-        patientNameCache.clear();
-        doctorNameCache.clear();
+        showAppointments(appointmentService::getAllAppointments);
+    }
 
-        try {
-            List<Appointment> appointments = appointmentService.getAllAppointments();
+    private void showAppointments(Callable<List<Appointment>> query) {
+        loader.load("appointments", appointmentTable, () -> {
+            List<Appointment> appointments = query.call();
+            // Resolve every name shown in the table in two batched queries
+            Set<Integer> patientIds = new HashSet<>();
+            Set<Integer> doctorIds = new HashSet<>();
+            for (Appointment a : appointments) {
+                patientIds.add(a.getPatientId());
+                doctorIds.add(a.getDoctorId());
+            }
+            names.resolve(patientIds, doctorIds);
+            return appointments;
+        }, appointments -> {
             appointmentList.setAll(appointments);
             appointmentTable.setItems(appointmentList);
-        } catch (SQLException e) {
-            showAlert("Error", "Failed to load appointments: " + e.getMessage());
-        }
+        }, e -> showAlert("Error", "Failed to load appointments: " + e.getMessage()));
     }
 
     @FXML
     private void handleSearch() {
-        String keyword = searchField.getText();
-        if (keyword == null || keyword.isEmpty()) {
+        String status = statusFilter.getValue();
+        AppointmentSearchCriteria criteria = new AppointmentSearchCriteria()
+                .name(searchField.getText())
+                .status(ALL_STATUSES.equals(status) ? null : status)
+                .between(fromDatePicker.getValue(), toDatePicker.getValue());
+
+        if (criteria.getName() == null && criteria.getStatus() == null
+                && criteria.getFromDate() == null && criteria.getToDate() == null) {
             loadAppointments();
             return;
         }
-        // For now, reload all - can implement search in service later
-        loadAppointments();
+        showAppointments(() -> appointmentService.searchAppointments(criteria));
     }
 
     @FXML
@@ -225,7 +219,7 @@ public class AppointmentController {
             dialogStage.showAndWait();
 
             if (controller.isSaveSuccessful()) {
-                loadAppointments();
+                handleSearch();
             }
         } catch (IOException e) {
             showAlert("Error", "Failed to load appointment form: " + e.getMessage());
@@ -233,8 +227,8 @@ public class AppointmentController {
     }
 
     private void handleDeleteAppointment(Appointment appointment) {
-        String patientName = getPatientName(appointment.getPatientId());
-        String doctorName = getDoctorName(appointment.getDoctorId());
+        String patientName = names.patientName(appointment.getPatientId());
+        String doctorName = names.doctorName(appointment.getDoctorId());
 
         Alert confirmAlert = new Alert(Alert.AlertType.CONFIRMATION);
         confirmAlert.setTitle("Confirm Delete");
@@ -247,7 +241,8 @@ public class AppointmentController {
         if (result.isPresent() && result.get() == ButtonType.OK) {
             try {
                 appointmentService.cancelAppointment(appointment.getId());
-                loadAppointments();
+                MainController.refreshViews("/com/hospital/view/DashboardView.fxml");
+                handleSearch();
                 showAlert("Success", "Appointment deleted successfully.");
             } catch (SQLException e) {
                 showAlert("Error", "Failed to delete appointment: " + e.getMessage());
@@ -260,13 +255,16 @@ public class AppointmentController {
         if (searchField != null) {
             searchField.clear();
         }
+        statusFilter.setValue(null);
+        fromDatePicker.setValue(null);
+        toDatePicker.setValue(null);
         appointmentTable.getSelectionModel().clearSelection();
         loadAppointments();
     }
 
     @FXML
     private void handleRefresh() {
-        loadAppointments();
+        handleSearch();
     }
 
     private void showAlert(String title, String content) {
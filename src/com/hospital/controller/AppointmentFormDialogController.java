@@ -6,6 +6,7 @@ import com.hospital.model.Patient;
 import com.hospital.service.AppointmentService;
 import com.hospital.service.DoctorService;
 import com.hospital.service.PatientService;
+import com.hospital.service.ServiceRegistry;
 import javafx.collections.FXCollections;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
@@ -55,9 +56,9 @@ public class AppointmentFormDialogController {
     private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm");
 
     public void initialize() {
-        appointmentService = new AppointmentService();
-        patientService = new PatientService();
-        doctorService = new DoctorService();
+        appointmentService = ServiceRegistry.getAppointmentService();
+        patientService = ServiceRegistry.getPatientService();
+        doctorService = ServiceRegistry.getDoctorService();
         statusComboBox.setItems(FXCollections.observableArrayList("Scheduled", "Completed", "Cancelled"));
         statusComboBox.getSelectionModel().selectFirst();
     }
@@ -204,6 +205,7 @@ public class AppointmentFormDialogController {
             } else {
                 appointmentService.scheduleAppointment(appointment);
             }
+            MainController.refreshViews("/com/hospital/view/DashboardView.fxml");
             saveSuccessful = true;
             dialogStage.close();
         } catch (SQLException e) {
@@ -0,0 +1,114 @@
+package com.hospital.controller;
+
+import javafx.application.Platform;
+import javafx.concurrent.Task;
+import javafx.scene.Node;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressIndicator;
+import javafx.scene.control.TableView;
+import javafx.scene.layout.VBox;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Runs controller data loading on a background pool instead of the JavaFX
+ * application thread.
+ *
+ * Each load has a key; starting a new load with the same key supersedes the
+ * previous one, whose result is then discarded (e.g. a search typed while
+ * the full list is still loading). While a table's load is running it shows
+ * a loading placeholder. Callbacks always run on the FX thread. One instance
+ * per controller.
+ */
+public class AsyncLoader {
+
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+    private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(
+            Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors())), r -> {
+                Thread t = new Thread(r, "ui-loader-" + THREAD_COUNT.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+
+    // Only touched on the FX thread
+    private final Map<String, Task<?>> running = new HashMap<>();
+    private final Map<TableView<?>, Node> placeholders = new IdentityHashMap<>();
+
+    public <T> void load(String key, Callable<T> work, Consumer<? super T> onSuccess,
+            Consumer<? super Throwable> onFailure) {
+        load(key, null, work, onSuccess, onFailure);
+    }
+
+    /**
+     * Runs work in the background and hands its result to onSuccess, or its
+     * exception to onFailure, on the FX thread.
+     *
+     * @param table shows a loading placeholder until the load finishes; may
+     *              be null
+     */
+    public <T> void load(String key, TableView<?> table, Callable<T> work, Consumer<? super T> onSuccess,
+            Consumer<? super Throwable> onFailure) {
+        if (!Platform.isFxApplicationThread()) {
+            // Controllers can be initialised off the FX thread by view preloading
+            Platform.runLater(() -> load(key, table, work, onSuccess, onFailure));
+            return;
+        }
+
+        Task<?> previous = running.remove(key);
+        if (previous != null) {
+            // Not interrupted: that could break the pooled JDBC connection mid-query
+            previous.cancel(false);
+        }
+
+        if (table != null) {
+            placeholders.putIfAbsent(table, table.getPlaceholder());
+            table.setPlaceholder(loadingPlaceholder());
+        }
+
+        Task<T> task = new Task<>() {
+            @Override
+            protected T call() throws Exception {
+                return work.call();
+            }
+        };
+        task.setOnSucceeded(e -> {
+            if (finish(key, task, table)) {
+                onSuccess.accept(task.getValue());
+            }
+        });
+        task.setOnFailed(e -> {
+            if (finish(key, task, table)) {
+                onFailure.accept(task.getException());
+            }
+        });
+
+        running.put(key, task);
+        EXECUTOR.execute(task);
+    }
+
+    private boolean finish(String key, Task<?> task, TableView<?> table) {
+        if (!running.remove(key, task)) {
+            // Superseded by a newer load
+            return false;
+        }
+        if (table != null && placeholders.containsKey(table)) {
+            table.setPlaceholder(placeholders.remove(table));
+        }
+        return true;
+    }
+
+    private static Node loadingPlaceholder() {
+        ProgressIndicator spinner = new ProgressIndicator();
+        spinner.setMaxSize(40, 40);
+        VBox box = new VBox(8, spinner, new Label("Loading..."));
+        box.setStyle("-fx-alignment: center;");
+        return box;
+    }
+}
@@ -1,10 +1,8 @@
 package com.hospital.controller;
 
-import com.hospital.service.PatientService;
-import com.hospital.service.DoctorService;
-import com.hospital.service.AppointmentService;
-import com.hospital.service.DepartmentService;
-import javafx.application.Platform;
+import com.hospital.model.DashboardSnapshot;
+import com.hospital.service.DashboardService;
+import com.hospital.service.ServiceRegistry;
 import javafx.fxml.FXML;
 import javafx.scene.control.Label;
 import javafx.scene.chart.BarChart;
@@ -17,11 +15,9 @@ import javafx.util.StringConverter;
 import javafx.animation.FadeTransition;
 import javafx.animation.ScaleTransition;
 import javafx.util.Duration;
-import java.sql.SQLException;
 import java.util.Map;
-import java.util.HashMap;
 
-public class DashboardController {
+public class DashboardController implements Refreshable {
 
     @FXML
     private Label lblDashboardWelcome;
@@ -39,16 +35,11 @@ public class DashboardController {
     @FXML
     private PieChart departmentChart;
 
-    private PatientService patientService;
-    private DoctorService doctorService;
-    private AppointmentService appointmentService;
-    private DepartmentService departmentService;
+    private DashboardService dashboardService;
+    private final AsyncLoader loader = new AsyncLoader();
 
     public void initialize() {
-        patientService = new PatientService();
-        doctorService = new DoctorService();
-        appointmentService = new AppointmentService();
-        departmentService = new DepartmentService();
+        dashboardService = ServiceRegistry.getDashboardService();
 
         // Update welcome message based on current role
         MainController mainController = MainController.getInstance();
@@ -57,8 +48,8 @@ public class DashboardController {
             lblDashboardWelcome.setText("Welcome back, " + role + " \uD83D\uDC4B");
         }
 
-        loadStatistics();
         setupCharts();
+        loadDashboard();
     }
 
     private void setupCharts() {
@@ -69,19 +60,38 @@ public class DashboardController {
         // Add an entry animation (Scale Up) for the charts themselves
         animateChartEntry(patientChart);
         animateChartEntry(departmentChart);
+    }
+
+    /**
+     * Fetches every figure in one round trip (or from the shared snapshot
+     * cache) and fills the counters and charts.
+     */
+    private void loadDashboard() {
+        loader.load("dashboard", dashboardService::getSnapshot, snapshot -> {
+            showCounts(snapshot);
+            showCharts(snapshot);
+        }, Throwable::printStackTrace);
+    }
+
+    private void showCounts(DashboardSnapshot snapshot) {
+        if (patientCountLabel != null)
+            patientCountLabel.setText(String.valueOf(snapshot.getPatientCount()));
+        if (doctorCountLabel != null)
+            doctorCountLabel.setText(String.valueOf(snapshot.getDoctorCount()));
+        if (appointmentCountLabel != null)
+            appointmentCountLabel.setText(String.valueOf(snapshot.getAppointmentCount()));
+        if (departmentCountLabel != null)
+            departmentCountLabel.setText(String.valueOf(snapshot.getDepartmentCount()));
+    }
 
+    private void showCharts(DashboardSnapshot data) {
         // Patient Statistics - Shows patients registered per day of week
         XYChart.Series<String, Number> series = new XYChart.Series<>();
         series.setName("Patients by Registration Day");
 
-        try {
-            java.util.Map<String, Integer> stats = patientService.getPatientsPerDayOfWeek();
-            String[] days = { "Mon", "Tue", "Wed", "Thu", "Fri", "Sat", "Sun" };
-            for (String day : days) {
-                series.getData().add(new XYChart.Data<>(day, stats.getOrDefault(day, 0)));
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
+        String[] days = { "Mon", "Tue", "Wed", "Thu", "Fri", "Sat", "Sun" };
+        for (String day : days) {
+            series.getData().add(new XYChart.Data<>(day, data.getPatientsPerDay().getOrDefault(day, 0)));
         }
 
         // Defer data addition with a slight delay to ensure the scene is ready and
@@ -99,16 +109,11 @@ public class DashboardController {
             yAxis.setTickUnit(1);
             yAxis.setMinorTickVisible(false);
 
+            // Find max value in current data
             int maxVal = 0;
-            try {
-                // Find max value in current data
-                Map<String, Integer> currentStats = patientService.getPatientsPerDayOfWeek();
-                for (int count : currentStats.values()) {
-                    if (count > maxVal)
-                        maxVal = count;
-                }
-            } catch (SQLException ex) {
-                /* ignore, safety fallback */
+            for (int count : data.getPatientsPerDay().values()) {
+                if (count > maxVal)
+                    maxVal = count;
             }
 
             // Ensure upper bound is at least 5 for looks, or max + 1
@@ -129,16 +134,11 @@ public class DashboardController {
             });
 
             // Department Distribution
-            try {
-                java.util.Map<String, Integer> deptStats = doctorService.getDoctorsPerDepartment();
-                ObservableList<PieChart.Data> pieData = FXCollections.observableArrayList();
-                for (java.util.Map.Entry<String, Integer> entry : deptStats.entrySet()) {
-                    pieData.add(new PieChart.Data(entry.getKey(), entry.getValue()));
-                }
-                departmentChart.setData(pieData);
-            } catch (SQLException ex) {
-                ex.printStackTrace();
+            ObservableList<PieChart.Data> pieData = FXCollections.observableArrayList();
+            for (Map.Entry<String, Integer> entry : data.getDoctorsPerDepartment().entrySet()) {
+                pieData.add(new PieChart.Data(entry.getKey(), entry.getValue()));
             }
+            departmentChart.setData(pieData);
         });
         pause.play();
     }
@@ -157,28 +157,10 @@ public class DashboardController {
         ft.play();
     }
 
-    private void loadStatistics() {
-        new Thread(() -> {
-            try {
-                int pCount = patientService.getPatientCount();
-                int dCount = doctorService.getDoctorCount();
-                int appCount = appointmentService.getAppointmentCount();
-                int deptCount = departmentService.getAllDepartments().size();
-
-                Platform.runLater(() -> {
-                    if (patientCountLabel != null)
-                        patientCountLabel.setText(String.valueOf(pCount));
-                    if (doctorCountLabel != null)
-                        doctorCountLabel.setText(String.valueOf(dCount));
-                    if (appointmentCountLabel != null)
-                        appointmentCountLabel.setText(String.valueOf(appCount));
-                    if (departmentCountLabel != null)
-                        departmentCountLabel.setText(String.valueOf(deptCount));
-                });
-            } catch (SQLException e) {
-                e.printStackTrace();
-            }
-        }).start();
+    @Override
+    public void refresh() {
+        setupCharts();
+        loadDashboard();
     }
 
     @FXML
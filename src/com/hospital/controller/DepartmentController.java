@@ -2,6 +2,7 @@ package com.hospital.controller;
 
 import com.hospital.model.Department;
 import com.hospital.service.DepartmentService;
+import com.hospital.service.ServiceRegistry;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
@@ -20,7 +21,7 @@ import java.sql.SQLException;
 import java.util.List;
 import java.util.Optional;
 
-public class DepartmentController {
+public class DepartmentController implements Refreshable {
 
     @FXML
     private TextField searchField;
@@ -38,9 +39,10 @@ public class DepartmentController {
 
     private DepartmentService departmentService;
     private ObservableList<Department> departmentList = FXCollections.observableArrayList();
+    private final AsyncLoader loader = new AsyncLoader();
 
     public void initialize() {
-        departmentService = new DepartmentService();
+        departmentService = ServiceRegistry.getDepartmentService();
         setupTableColumns();
         setupActionColumn();
         loadDepartments();
@@ -100,14 +102,16 @@ public class DepartmentController {
         }
     }
 
+    @Override
+    public void refresh() {
+        handleRefresh();
+    }
+
     private void loadDepartments() {
-        try {
-            List<Department> departments = departmentService.getAllDepartments();
+        loader.load("departments", departmentTable, departmentService::getAllDepartments, departments -> {
             departmentList.setAll(departments);
             departmentTable.setItems(departmentList);
-        } catch (SQLException e) {
-            showAlert("Error", "Failed to load departments: " + e.getMessage());
-        }
+        }, e -> showAlert("Error", "Failed to load departments: " + e.getMessage()));
     }
 
     @FXML
@@ -122,17 +126,13 @@ public class DepartmentController {
         // just reload for now.
         // Or implement simple filter:
         String lower = keyword.toLowerCase();
-        try {
-            List<Department> all = departmentService.getAllDepartments();
-            List<Department> filtered = all.stream()
-                    .filter(d -> d.getName().toLowerCase().contains(lower)
-                            || d.getLocation().toLowerCase().contains(lower))
-                    .toList();
-            departmentList.setAll(filtered);
-            departmentTable.setItems(departmentList);
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
+        loader.load("departments", departmentTable, () -> departmentService.getAllDepartments().stream()
+                .filter(d -> d.getName().toLowerCase().contains(lower)
+                        || d.getLocation().toLowerCase().contains(lower))
+                .toList(), filtered -> {
+                    departmentList.setAll(filtered);
+                    departmentTable.setItems(departmentList);
+                }, Throwable::printStackTrace);
     }
 
     @FXML
@@ -181,6 +181,8 @@ public class DepartmentController {
         if (result.isPresent() && result.get() == ButtonType.OK) {
             try {
                 departmentService.deleteDepartment(department.getId());
+                MainController.refreshViews("/com/hospital/view/DoctorView.fxml",
+                        "/com/hospital/view/DashboardView.fxml");
                 loadDepartments();
                 showAlert("Success", "Department deleted successfully.");
             } catch (SQLException e) {
@@ -2,6 +2,7 @@ package com.hospital.controller;
 
 import com.hospital.model.Department;
 import com.hospital.service.DepartmentService;
+import com.hospital.service.ServiceRegistry;
 import javafx.fxml.FXML;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Label;
@@ -25,7 +26,7 @@ public class DepartmentFormDialogController {
     private boolean saveSuccessful = false;
 
     public void initialize() {
-        departmentService = new DepartmentService();
+        departmentService = ServiceRegistry.getDepartmentService();
     }
 
     public void setDialogStage(Stage dialogStage) {
@@ -59,6 +60,8 @@ public class DepartmentFormDialogController {
             } else {
                 departmentService.addDepartment(department);
             }
+            // Department names show in the doctor list
+            MainController.refreshViews("/com/hospital/view/DoctorView.fxml", "/com/hospital/view/DashboardView.fxml");
             saveSuccessful = true;
             dialogStage.close();
         } catch (SQLException e) {
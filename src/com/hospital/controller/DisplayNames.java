@@ -0,0 +1,90 @@
+package com.hospital.controller;
+
+import com.hospital.model.Doctor;
+import com.hospital.model.Patient;
+import com.hospital.service.DoctorService;
+import com.hospital.service.PatientService;
+
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Patient and doctor display names for table cells.
+ *
+ * Screens call resolve() from their background load with every id about to
+ * be shown, which fetches the names in batched queries; the cell factories
+ * then read names from memory instead of running a query per row on the FX
+ * thread. Ids that were never resolved fall back to a single lookup.
+ */
+class DisplayNames {
+
+    private final PatientService patientService;
+    private final DoctorService doctorService;
+    private final Map<Integer, String> patientNames = new ConcurrentHashMap<>();
+    private final Map<Integer, String> doctorNames = new ConcurrentHashMap<>();
+
+    DisplayNames(PatientService patientService, DoctorService doctorService) {
+        this.patientService = patientService;
+        this.doctorService = doctorService;
+    }
+
+    /**
+     * Fetches (or refreshes) the names for the given ids. Safe to call off the
+     * FX thread.
+     */
+    void resolve(Collection<Integer> patientIds, Collection<Integer> doctorIds) throws SQLException {
+        Map<Integer, Patient> patients = patientService.getPatientsByIds(patientIds);
+        for (Integer id : patientIds) {
+            patientNames.put(id, patientName(id, patients.get(id)));
+        }
+
+        Map<Integer, Doctor> doctors = doctorService.getDoctorsByIds(doctorIds);
+        for (Integer id : doctorIds) {
+            doctorNames.put(id, doctorName(id, doctors.get(id)));
+        }
+    }
+
+    String patientName(int patientId) {
+        if (patientId == 0)
+            return "-";
+        String name = patientNames.get(patientId);
+        if (name != null) {
+            return name;
+        }
+        try {
+            name = patientName(patientId, patientService.getPatientById(patientId));
+        } catch (SQLException e) {
+            // Show the ID as fallback, and retry next time
+            return "Patient #" + patientId;
+        }
+        patientNames.put(patientId, name);
+        return name;
+    }
+
+    String doctorName(int doctorId) {
+        if (doctorId == 0)
+            return "-";
+        String name = doctorNames.get(doctorId);
+        if (name != null) {
+            return name;
+        }
+        try {
+            name = doctorName(doctorId, doctorService.getDoctorById(doctorId));
+        } catch (SQLException e) {
+            // Show the ID as fallback, and retry next time
+            return "Doctor #" + doctorId;
+        }
+        doctorNames.put(doctorId, name);
+        return name;
+    }
+
+    private static String patientName(int patientId, Patient patient) {
+        return patient != null ? patient.getFirstName() + " " + patient.getLastName() : "Patient #" + patientId;
+    }
+
+    private static String doctorName(int doctorId, Doctor doctor) {
+        return doctor != null ? "Dr. " + doctor.getFirstName() + " " + doctor.getLastName() : "Doctor #" + doctorId;
+    }
+}
@@ -4,6 +4,7 @@ import com.hospital.model.Department;
 import com.hospital.model.Doctor;
 import com.hospital.service.DepartmentService;
 import com.hospital.service.DoctorService;
+import com.hospital.service.ServiceRegistry;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -27,7 +28,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
-public class DoctorController {
+public class DoctorController implements Refreshable {
 
     @FXML
     private TextField searchField;
@@ -56,13 +57,14 @@ public class DoctorController {
     private DoctorService doctorService;
     private DepartmentService departmentService;
     private final ObservableList<Doctor> doctorList = FXCollections.observableArrayList();
+    private final AsyncLoader loader = new AsyncLoader();
 
     // Cache for department names
     private final Map<Integer, String> departmentNameCache = new HashMap<>();
 
     public void initialize() {
-        doctorService = new DoctorService();
-        departmentService = new DepartmentService();
+        doctorService = ServiceRegistry.getDoctorService();
+        departmentService = ServiceRegistry.getDepartmentService();
         setupTableColumns();
         setupActionColumn();
         loadDoctors();
@@ -160,17 +162,19 @@ public class DoctorController {
         }
     }
 
+    @Override
+    public void refresh() {
+        handleRefresh();
+    }
+
     private void loadDoctors() {
         // Clear cache to refresh department names
         departmentNameCache.clear();
 
-        try {
-            List<Doctor> doctors = doctorService.getAllDoctors();
+        loader.load("doctors", doctorTable, doctorService::getAllDoctors, doctors -> {
             doctorList.setAll(doctors);
             doctorTable.setItems(doctorList);
-        } catch (SQLException e) {
-            showAlert("Error", "Failed to load doctors: " + e.getMessage());
-        }
+        }, e -> showAlert("Error", "Failed to load doctors: " + e.getMessage()));
     }
 
     @FXML
@@ -183,22 +187,17 @@ public class DoctorController {
 
         String lowerKeyword = keyword.toLowerCase().trim();
 
-        try {
-            List<Doctor> allDoctors = doctorService.getAllDoctors();
-            List<Doctor> filtered = allDoctors.stream()
-                    .filter(d -> d.getFirstName().toLowerCase().contains(lowerKeyword) ||
-                            d.getLastName().toLowerCase().contains(lowerKeyword) ||
-                            (d.getSpecialization() != null
-                                    && d.getSpecialization().toLowerCase().contains(lowerKeyword))
-                            ||
-                            (d.getEmail() != null && d.getEmail().toLowerCase().contains(lowerKeyword)))
-                    .toList();
-
-            doctorList.setAll(filtered);
-            doctorTable.setItems(doctorList);
-        } catch (SQLException e) {
-            showAlert("Error", "Failed to search doctors: " + e.getMessage());
-        }
+        loader.load("doctors", doctorTable, () -> doctorService.getAllDoctors().stream()
+                .filter(d -> d.getFirstName().toLowerCase().contains(lowerKeyword) ||
+                        d.getLastName().toLowerCase().contains(lowerKeyword) ||
+                        (d.getSpecialization() != null
+                                && d.getSpecialization().toLowerCase().contains(lowerKeyword))
+                        ||
+                        (d.getEmail() != null && d.getEmail().toLowerCase().contains(lowerKeyword)))
+                .toList(), filtered -> {
+                    doctorList.setAll(filtered);
+                    doctorTable.setItems(doctorList);
+                }, e -> showAlert("Error", "Failed to search doctors: " + e.getMessage()));
     }
 
     @FXML
@@ -247,6 +246,9 @@ public class DoctorController {
         if (result.isPresent() && result.get() == ButtonType.OK) {
             try {
                 doctorService.deleteDoctor(doctor.getId());
+                MainController.refreshViews("/com/hospital/view/AppointmentView.fxml",
+                        "/com/hospital/view/PrescriptionView.fxml",
+                        "/com/hospital/view/DashboardView.fxml");
                 loadDoctors();
                 showAlert("Success", "Doctor deleted successfully.");
             } catch (SQLException e) {
@@ -4,6 +4,7 @@ import com.hospital.model.Department;
 import com.hospital.model.Doctor;
 import com.hospital.service.DepartmentService;
 import com.hospital.service.DoctorService;
+import com.hospital.service.ServiceRegistry;
 import javafx.collections.FXCollections;
 import javafx.fxml.FXML;
 import javafx.scene.control.Alert;
@@ -49,8 +50,8 @@ public class DoctorFormDialogController {
     // Patterns moved to com.hospital.util.ValidationUtil
 
     public void initialize() {
-        doctorService = new DoctorService();
-        departmentService = new DepartmentService();
+        doctorService = ServiceRegistry.getDoctorService();
+        departmentService = ServiceRegistry.getDepartmentService();
         loadDepartments();
     }
 
@@ -138,6 +139,10 @@ public class DoctorFormDialogController {
             } else {
                 doctorService.registerDoctor(doctor);
             }
+            // Doctor names show in these views
+            MainController.refreshViews("/com/hospital/view/AppointmentView.fxml",
+                    "/com/hospital/view/PrescriptionView.fxml",
+                    "/com/hospital/view/DashboardView.fxml");
             saveSuccessful = true;
             dialogStage.close();
         } catch (SQLException e) {
@@ -4,6 +4,7 @@ import com.hospital.model.Patient;
 import com.hospital.model.PatientFeedback;
 import com.hospital.service.FeedbackService;
 import com.hospital.service.PatientService;
+import com.hospital.service.ServiceRegistry;
 import com.hospital.util.SessionManager;
 import javafx.collections.FXCollections;
 import javafx.fxml.FXML;
@@ -17,7 +18,7 @@ import java.sql.SQLException;
 import java.util.List;
 import java.util.Optional;
 
-public class FeedbackController {
+public class FeedbackController implements Refreshable {
 
     @FXML
     private TableView<PatientFeedback> feedbackTable;
@@ -37,14 +38,15 @@ public class FeedbackController {
 
     private FeedbackService feedbackService;
     private PatientService patientService;
+    private final AsyncLoader loader = new AsyncLoader();
 
     public FeedbackController() {
     }
 
     @FXML
     public void initialize() {
-        feedbackService = new FeedbackService();
-        patientService = new PatientService();
+        feedbackService = ServiceRegistry.getFeedbackService();
+        patientService = ServiceRegistry.getPatientService();
 
         idColumn.setCellValueFactory(new PropertyValueFactory<>("id"));
         patientNameColumn.setCellValueFactory(new PropertyValueFactory<>("patientName"));
@@ -72,13 +74,15 @@ public class FeedbackController {
         }
     }
 
+    @Override
+    public void refresh() {
+        loadFeedback();
+    }
+
     private void loadFeedback() {
-        try {
-            List<PatientFeedback> feedbackList = feedbackService.getAllFeedback();
-            feedbackTable.setItems(FXCollections.observableArrayList(feedbackList));
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
+        loader.load("feedback", feedbackTable, feedbackService::getVisibleFeedback,
+                feedbackList -> feedbackTable.setItems(FXCollections.observableArrayList(feedbackList)),
+                Throwable::printStackTrace);
     }
 
     @FXML
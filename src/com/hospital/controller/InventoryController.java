@@ -2,6 +2,7 @@ package com.hospital.controller;
 
 import com.hospital.model.MedicalInventory;
 import com.hospital.service.InventoryService;
+import com.hospital.service.ServiceRegistry;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
@@ -17,7 +18,7 @@ import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
-public class InventoryController {
+public class InventoryController implements Refreshable {
 
     @FXML
     private TextField searchField;
@@ -40,14 +41,15 @@ public class InventoryController {
 
     private InventoryService inventoryService;
     private ObservableList<MedicalInventory> inventoryList = FXCollections.observableArrayList();
-    private List<MedicalInventory> allItems;
+    private List<MedicalInventory> allItems = List.of();
+    private final AsyncLoader loader = new AsyncLoader();
 
     public InventoryController() {
     }
 
     @FXML
     public void initialize() {
-        inventoryService = new InventoryService();
+        inventoryService = ServiceRegistry.getInventoryService();
         idColumn.setCellValueFactory(new PropertyValueFactory<>("id"));
         nameColumn.setCellValueFactory(new PropertyValueFactory<>("itemName"));
         categoryColumn.setCellValueFactory(new PropertyValueFactory<>("category"));
@@ -90,14 +92,17 @@ public class InventoryController {
         });
     }
 
+    @Override
+    public void refresh() {
+        handleRefresh();
+    }
+
     private void loadInventory() {
-        try {
-            allItems = inventoryService.getAllInventoryItems();
+        loader.load("inventory", inventoryTable, inventoryService::getAllInventoryItems, items -> {
+            allItems = items;
             inventoryList.setAll(allItems);
             inventoryTable.setItems(inventoryList);
-        } catch (SQLException e) {
-            showAlert("Error", "Failed to load inventory: " + e.getMessage());
-        }
+        }, e -> showAlert("Error", "Failed to load inventory: " + e.getMessage()));
     }
 
     @FXML
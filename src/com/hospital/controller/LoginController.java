@@ -2,6 +2,7 @@ package com.hospital.controller;
 
 import com.hospital.model.User;
 import com.hospital.dao.UserDAO;
+import com.hospital.service.ServiceRegistry;
 import com.hospital.util.PasswordUtil;
 import com.hospital.util.SessionManager;
 
@@ -192,6 +193,9 @@ public class LoginController {
     }
 
     private void navigateToMainApp() {
+        // Shared services (and their caches) live for the rest of the session
+        ServiceRegistry.initialize();
+
         try {
             FXMLLoader loader = new FXMLLoader(getClass().getResource("/com/hospital/view/MainLayout.fxml"));
             Parent root = loader.load();
@@ -232,6 +236,7 @@ public class LoginController {
     public static void showLoginScreen(Stage currentStage) {
         try {
             SessionManager.logout();
+            ServiceRegistry.endSession();
 
             // Preserve current window dimensions
             double width = currentStage.getWidth();
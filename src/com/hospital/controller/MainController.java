@@ -1,6 +1,8 @@
 package com.hospital.controller;
 
 import com.hospital.model.User;
+import com.hospital.service.ServiceRegistry;
+import com.hospital.util.EnvUtil;
 import com.hospital.util.SessionManager;
 
 import javafx.fxml.FXML;
@@ -55,6 +57,19 @@ public class MainController {
 
     private static MainController instance;
 
+    // Views most roles open right after login, loaded while the app is idle
+    private static final List<String> CLINICAL_PRELOAD_VIEWS = Arrays.asList(
+            "/com/hospital/view/PatientView.fxml",
+            "/com/hospital/view/AppointmentView.fxml",
+            "/com/hospital/view/PrescriptionView.fxml",
+            "/com/hospital/view/DoctorView.fxml");
+    private static final List<String> PATIENT_PRELOAD_VIEWS = Arrays.asList(
+            "/com/hospital/view/PrescriptionView.fxml");
+
+    private final ViewCache viewCache = new ViewCache(
+            EnvUtil.getInt("VIEW_CACHE_SIZE", 6),
+            EnvUtil.getLong("VIEW_STALE_AFTER_MS", 60_000));
+
     private Stack<String> navigationHistory = new Stack<>();
     private String currentView = "/com/hospital/view/DashboardView.fxml"; // Default start
 
@@ -154,6 +169,12 @@ public class MainController {
             // Patients start at Feedback
             showFeedback();
         }
+
+        if (isAdmin || isDoctor) {
+            viewCache.preload(CLINICAL_PRELOAD_VIEWS);
+        } else if (isPatient) {
+            viewCache.preload(PATIENT_PRELOAD_VIEWS);
+        }
     }
 
     @FXML
@@ -173,6 +194,8 @@ public class MainController {
     private void handleSignOut() {
         // Clear the session
         SessionManager.logout();
+        ServiceRegistry.endSession();
+        viewCache.invalidateAll();
 
         // Navigate back to login screen
         try {
@@ -286,10 +309,23 @@ public class MainController {
         }
     }
 
+    /**
+     * Reloads the views' data (through their controllers' refresh()) the
+     * next time they are shown. Save and delete handlers call it for the
+     * other cached views that display the data they changed.
+     */
+    public static void refreshViews(String... fxmlPaths) {
+        if (instance == null) {
+            return;
+        }
+        for (String fxmlPath : fxmlPaths) {
+            instance.viewCache.markStale(fxmlPath);
+        }
+    }
+
     private void loadViewInternal(String fxmlPath) {
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource(fxmlPath));
-            Parent view = loader.load();
+            Parent view = viewCache.get(fxmlPath).getRoot();
             contentArea.getChildren().clear();
             contentArea.getChildren().add(view);
 
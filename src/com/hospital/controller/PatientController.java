@@ -2,6 +2,7 @@ package com.hospital.controller;
 
 import com.hospital.model.Patient;
 import com.hospital.service.PatientService;
+import com.hospital.service.ServiceRegistry;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -23,7 +24,7 @@ import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Optional;
 
-public class PatientController {
+public class PatientController implements Refreshable {
 
     @FXML
     private TextField searchField;
@@ -53,9 +54,10 @@ public class PatientController {
 
     private PatientService patientService;
     private ObservableList<Patient> patientList = FXCollections.observableArrayList();
+    private final AsyncLoader loader = new AsyncLoader();
 
     public void initialize() {
-        patientService = new PatientService();
+        patientService = ServiceRegistry.getPatientService();
         setupTableColumns();
         setupActionColumn();
         loadPatients();
@@ -135,14 +137,16 @@ public class PatientController {
         }
     }
 
+    @Override
+    public void refresh() {
+        handleRefresh();
+    }
+
     private void loadPatients() {
-        try {
-            List<Patient> patients = patientService.getAllPatients();
+        loader.load("patients", patientTable, patientService::getAllPatients, patients -> {
             patientList.setAll(patients);
             patientTable.setItems(patientList);
-        } catch (SQLException e) {
-            showAlert("Error", "Failed to load patients: " + e.getMessage());
-        }
+        }, e -> showAlert("Error", "Failed to load patients: " + e.getMessage()));
     }
 
     @FXML
@@ -152,12 +156,9 @@ public class PatientController {
             loadPatients();
             return;
         }
-        try {
-            List<Patient> patients = patientService.searchPatients(keyword);
-            patientList.setAll(patients);
-        } catch (SQLException e) {
-            showAlert("Error", "Search failed: " + e.getMessage());
-        }
+        loader.load("patients", patientTable, () -> patientService.searchPatients(keyword),
+                patients -> patientList.setAll(patients),
+                e -> showAlert("Error", "Search failed: " + e.getMessage()));
     }
 
     @FXML
@@ -236,6 +237,10 @@ public class PatientController {
         if (result.isPresent() && result.get() == ButtonType.OK) {
             try {
                 patientService.deletePatient(patient.getId());
+                MainController.refreshViews("/com/hospital/view/AppointmentView.fxml",
+                        "/com/hospital/view/PrescriptionView.fxml",
+                        "/com/hospital/view/FeedbackView.fxml",
+                        "/com/hospital/view/DashboardView.fxml");
                 loadPatients();
                 showAlert("Success", "Patient deleted successfully.");
             } catch (SQLException e) {
@@ -2,6 +2,7 @@ package com.hospital.controller;
 
 import com.hospital.model.Patient;
 import com.hospital.service.PatientService;
+import com.hospital.service.ServiceRegistry;
 import javafx.collections.FXCollections;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
@@ -47,7 +48,7 @@ public class PatientFormDialogController {
 
     @FXML
     public void initialize() {
-        patientService = new PatientService();
+        patientService = ServiceRegistry.getPatientService();
 
         // Initialize gender dropdown
         genderField.setItems(FXCollections.observableArrayList("Male", "Female"));
@@ -111,6 +112,11 @@ public class PatientFormDialogController {
                 showAlert(Alert.AlertType.INFORMATION, "Success", "Patient updated successfully!");
             }
 
+            // Patient names show in these views
+            MainController.refreshViews("/com/hospital/view/AppointmentView.fxml",
+                    "/com/hospital/view/PrescriptionView.fxml",
+                    "/com/hospital/view/FeedbackView.fxml",
+                    "/com/hospital/view/DashboardView.fxml");
             saveSuccessful = true;
             dialogStage.close();
 
@@ -1,8 +1,11 @@
 package com.hospital.controller;
 
+import com.hospital.dao.NotePage;
+import com.hospital.dao.NoteQuery;
 import com.hospital.model.Patient;
 import com.hospital.model.PatientNote;
 import com.hospital.service.PatientService;
+import com.hospital.service.ServiceRegistry;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.stage.Stage;
@@ -25,14 +28,17 @@ public class PatientNoteDialogController {
     private TextArea contentArea;
     @FXML
     private Button addButton;
+    @FXML
+    private Button loadMoreButton;
 
     private PatientService patientService;
     private Patient currentPatient;
     private Stage dialogStage;
+    private NoteQuery nextQuery; // null when every note is shown
 
     @FXML
     public void initialize() {
-        patientService = new PatientService();
+        patientService = ServiceRegistry.getPatientService();
         categoryComboBox.getItems().addAll("General", "Nurse Log", "Vitals", "History", "Prescription");
         categoryComboBox.setValue("General");
     }
@@ -50,13 +56,34 @@ public class PatientNoteDialogController {
     private void loadNotes() {
         notesContainer.getChildren().clear();
 
-        List<PatientNote> notes = patientService.getPatientNotes(currentPatient.getId());
+        List<PatientNote> notes = showPage(new NoteQuery(currentPatient.getId()));
 
         if (notes.isEmpty()) {
             Label placeholder = new Label("No notes found for this patient.");
             placeholder.setStyle("-fx-text-fill: #95a5a6; -fx-padding: 10;");
             notesContainer.getChildren().add(placeholder);
         }
+    }
+
+    @FXML
+    private void handleLoadMore() {
+        if (nextQuery != null) {
+            showPage(nextQuery);
+        }
+    }
+
+    /**
+     * Appends one page of notes to the list and remembers where the next
+     * page starts.
+     */
+    private List<PatientNote> showPage(NoteQuery query) {
+        NotePage page = patientService.getPatientNotes(query);
+        List<PatientNote> notes = page.getNotes();
+        nextQuery = page.hasMore()
+                ? new NoteQuery(currentPatient.getId()).after(notes.get(notes.size() - 1))
+                : null;
+        loadMoreButton.setVisible(nextQuery != null);
+        loadMoreButton.setManaged(nextQuery != null);
 
         for (PatientNote note : notes) {
             VBox card = new VBox(5);
@@ -96,6 +123,7 @@ public class PatientNoteDialogController {
                 }
             });
         }
+        return notes;
     }
 
     @FXML
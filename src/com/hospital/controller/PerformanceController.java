@@ -1,5 +1,7 @@
 package com.hospital.controller;
 
+import com.hospital.util.MetricsRegistry;
+import com.hospital.util.PerformanceLogger;
 import javafx.beans.property.SimpleIntegerProperty;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
@@ -16,7 +18,7 @@ import java.nio.file.Paths;
 import java.util.*;
 import java.util.stream.Collectors;
 
-public class PerformanceController {
+public class PerformanceController implements Refreshable {
 
     @FXML
     private TableView<PerformanceEntry> performanceTable;
@@ -27,6 +29,22 @@ public class PerformanceController {
     @FXML
     private TableColumn<PerformanceEntry, Integer> durationColumn;
     @FXML
+    private TableView<MetricsRegistry.OperationStats> latencyTable;
+    @FXML
+    private TableColumn<MetricsRegistry.OperationStats, String> latencyOperationColumn;
+    @FXML
+    private TableColumn<MetricsRegistry.OperationStats, Long> latencyCountColumn;
+    @FXML
+    private TableColumn<MetricsRegistry.OperationStats, Double> p50Column;
+    @FXML
+    private TableColumn<MetricsRegistry.OperationStats, Double> p95Column;
+    @FXML
+    private TableColumn<MetricsRegistry.OperationStats, Double> p99Column;
+    @FXML
+    private TableColumn<MetricsRegistry.OperationStats, Double> maxColumn;
+    @FXML
+    private TableColumn<MetricsRegistry.OperationStats, Double> throughputColumn;
+    @FXML
     private Label totalOperationsLabel;
     @FXML
     private Label avgDurationLabel;
@@ -69,9 +87,59 @@ public class PerformanceController {
         });
 
         performanceTable.setItems(entries);
+        setupLatencyTable();
         loadPerformanceData();
     }
 
+    private void setupLatencyTable() {
+        latencyOperationColumn.setCellValueFactory(new PropertyValueFactory<>("operation"));
+        latencyCountColumn.setCellValueFactory(new PropertyValueFactory<>("count"));
+        p50Column.setCellValueFactory(new PropertyValueFactory<>("p50Ms"));
+        p95Column.setCellValueFactory(new PropertyValueFactory<>("p95Ms"));
+        p99Column.setCellValueFactory(new PropertyValueFactory<>("p99Ms"));
+        maxColumn.setCellValueFactory(new PropertyValueFactory<>("maxMs"));
+        throughputColumn.setCellValueFactory(new PropertyValueFactory<>("throughputPerSecond"));
+
+        p50Column.setCellFactory(column -> createLatencyCell());
+        p95Column.setCellFactory(column -> createLatencyCell());
+        p99Column.setCellFactory(column -> createLatencyCell());
+        maxColumn.setCellFactory(column -> createLatencyCell());
+        throughputColumn.setCellFactory(column -> new TableCell<MetricsRegistry.OperationStats, Double>() {
+            @Override
+            protected void updateItem(Double item, boolean empty) {
+                super.updateItem(item, empty);
+                setText(empty || item == null ? null : String.format("%.2f ops/s", item));
+            }
+        });
+    }
+
+    // Same colour bands as the operation log
+    private TableCell<MetricsRegistry.OperationStats, Double> createLatencyCell() {
+        return new TableCell<MetricsRegistry.OperationStats, Double>() {
+            @Override
+            protected void updateItem(Double item, boolean empty) {
+                super.updateItem(item, empty);
+                if (empty || item == null) {
+                    setText(null);
+                    setStyle("");
+                } else {
+                    setText(String.format("%.2f ms", item));
+                    if (item < 100) {
+                        setStyle("-fx-text-fill: #27ae60; -fx-font-weight: bold;");
+                    } else if (item < 500) {
+                        setStyle("-fx-text-fill: #f39c12; -fx-font-weight: bold;");
+                    } else {
+                        setStyle("-fx-text-fill: #e74c3c; -fx-font-weight: bold;");
+                    }
+                }
+            }
+        };
+    }
+
+    private void loadLatencyStats() {
+        latencyTable.setItems(FXCollections.observableArrayList(MetricsRegistry.snapshot()));
+    }
+
     @FXML
     private void handleRefresh() {
         System.out.println("Refreshing performance data...");
@@ -80,8 +148,17 @@ public class PerformanceController {
         System.out.println("Loaded " + entries.size() + " entries.");
     }
 
+    @Override
+    public void refresh() {
+        loadPerformanceData();
+    }
+
     private void loadPerformanceData() {
         entries.clear();
+        loadLatencyStats();
+
+        // Make sure measurements still queued in memory are on disk
+        PerformanceLogger.flush();
 
         Path csvPath = Paths.get("performance_report.csv");
 
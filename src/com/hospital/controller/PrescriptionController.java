@@ -4,6 +4,7 @@ import com.hospital.model.*;
 import com.hospital.service.DoctorService;
 import com.hospital.service.PatientService;
 import com.hospital.service.PrescriptionService;
+import com.hospital.service.ServiceRegistry;
 import com.hospital.util.SessionManager;
 import javafx.beans.property.SimpleIntegerProperty;
 import javafx.beans.property.SimpleStringProperty;
@@ -23,10 +24,12 @@ import java.io.IOException;
 import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.time.format.DateTimeFormatter;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
 
 /**
  * View model combining Prescription header with its first item for display
@@ -87,7 +90,7 @@ class PrescriptionDisplayItem {
     }
 }
 
-public class PrescriptionController {
+public class PrescriptionController implements Refreshable {
 
     @FXML
     private TextField searchField;
@@ -116,16 +119,17 @@ public class PrescriptionController {
     private DoctorService doctorService;
     private ObservableList<PrescriptionDisplayItem> prescriptionList = FXCollections.observableArrayList();
 
-    // Cache for patient and doctor names
-    private Map<Integer, String> patientNameCache = new HashMap<>();
-    private Map<Integer, String> doctorNameCache = new HashMap<>();
+    private final AsyncLoader loader = new AsyncLoader();
+
+    private DisplayNames names;
 
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("MMM dd, yyyy");
 
     public void initialize() {
-        prescriptionService = new PrescriptionService();
-        patientService = new PatientService();
-        doctorService = new DoctorService();
+        prescriptionService = ServiceRegistry.getPrescriptionService();
+        patientService = ServiceRegistry.getPatientService();
+        doctorService = ServiceRegistry.getDoctorService();
+        names = new DisplayNames(patientService, doctorService);
         setupTableColumns();
 
         // Check role and configure UI
@@ -150,14 +154,14 @@ public class PrescriptionController {
         // Patient name
         colPatientName.setCellValueFactory(cellData -> {
             int patientId = cellData.getValue().getPatientId();
-            String name = getPatientName(patientId);
+            String name = names.patientName(patientId);
             return new SimpleStringProperty(name);
         });
 
         // Doctor name
         colDoctorName.setCellValueFactory(cellData -> {
             int doctorId = cellData.getValue().getDoctorId();
-            String name = getDoctorName(doctorId);
+            String name = names.doctorName(doctorId);
             return new SimpleStringProperty(name);
         });
 
@@ -182,44 +186,6 @@ public class PrescriptionController {
         });
     }
 
-    private String getPatientName(int patientId) {
-        if (patientId == 0)
-            return "-";
-        if (patientNameCache.containsKey(patientId)) {
-            return patientNameCache.get(patientId);
-        }
-        try {
-            Patient patient = patientService.getPatientById(patientId);
-            if (patient != null) {
-                String name = patient.getFirstName() + " " + patient.getLastName();
-                patientNameCache.put(patientId, name);
-                return name;
-            }
-        } catch (SQLException e) {
-            // Return ID as fallback
-        }
-        return "Patient #" + patientId;
-    }
-
-    private String getDoctorName(int doctorId) {
-        if (doctorId == 0)
-            return "-";
-        if (doctorNameCache.containsKey(doctorId)) {
-            return doctorNameCache.get(doctorId);
-        }
-        try {
-            Doctor doctor = doctorService.getDoctorById(doctorId);
-            if (doctor != null) {
-                String name = "Dr. " + doctor.getFirstName() + " " + doctor.getLastName();
-                doctorNameCache.put(doctorId, name);
-                return name;
-            }
-        } catch (SQLException e) {
-            // Return ID as fallback
-        }
-        return "Doctor #" + doctorId;
-    }
-
     private void setupActionColumn() {
         if (colActions != null) {
             colActions.setCellFactory(param -> new TableCell<>() {
@@ -258,29 +224,51 @@ public class PrescriptionController {
         }
     }
 
+    @Override
+    public void refresh() {
+        handleRefresh();
+    }
+
     private void loadPrescriptions() {
-        // Clear cache
-        patientNameCache.clear();
-        doctorNameCache.clear();
-        prescriptionList.clear();
+        showPrescriptions(prescriptionService::getVisiblePrescriptions);
+    }
 
-        try {
-            List<Prescription> prescriptions = prescriptionService.getAllPrescriptionsWithItems();
+    private void showPrescriptions(Callable<List<Prescription>> query) {
+        loader.load("prescriptions", prescriptionTable, () -> {
+            List<Prescription> prescriptions = query.call();
+            resolveNames(prescriptions);
+
+            List<PrescriptionDisplayItem> rows = new ArrayList<>();
             for (Prescription p : prescriptions) {
                 if (p.getItems() != null && !p.getItems().isEmpty()) {
                     // Create a display row for each item in the prescription
                     for (PrescriptionItem item : p.getItems()) {
-                        prescriptionList.add(new PrescriptionDisplayItem(p, item));
+                        rows.add(new PrescriptionDisplayItem(p, item));
                     }
                 } else {
                     // Prescription with no items
-                    prescriptionList.add(new PrescriptionDisplayItem(p, null));
+                    rows.add(new PrescriptionDisplayItem(p, null));
                 }
             }
+            return rows;
+        }, rows -> {
+            prescriptionList.setAll(rows);
             prescriptionTable.setItems(prescriptionList);
-        } catch (SQLException e) {
-            showAlert("Error", "Failed to load prescriptions: " + e.getMessage());
+        }, e -> showAlert("Error", "Failed to load prescriptions: " + e.getMessage()));
+    }
+
+    /**
+     * Fetches the patient and doctor names for all rows in two batched
+     * queries. Runs on the loader thread.
+     */
+    private void resolveNames(List<Prescription> prescriptions) throws SQLException {
+        Set<Integer> patientIds = new HashSet<>();
+        Set<Integer> doctorIds = new HashSet<>();
+        for (Prescription p : prescriptions) {
+            patientIds.add(p.getPatientId());
+            doctorIds.add(p.getDoctorId());
         }
+        names.resolve(patientIds, doctorIds);
     }
 
     @FXML
@@ -290,39 +278,9 @@ public class PrescriptionController {
             loadPrescriptions();
             return;
         }
-
-        String lowerKeyword = keyword.toLowerCase().trim();
-
-        try {
-            List<Prescription> allPrescriptions = prescriptionService.getAllPrescriptionsWithItems();
-            prescriptionList.clear();
-
-            for (Prescription p : allPrescriptions) {
-                String patientName = getPatientName(p.getPatientId()).toLowerCase();
-                String doctorName = getDoctorName(p.getDoctorId()).toLowerCase();
-
-                if (p.getItems() != null && !p.getItems().isEmpty()) {
-                    for (PrescriptionItem item : p.getItems()) {
-                        String medicineName = item.getMedicineName() != null ? item.getMedicineName().toLowerCase()
-                                : "";
-                        String dosage = item.getDosageInstructions() != null
-                                ? item.getDosageInstructions().toLowerCase()
-                                : "";
-
-                        if (patientName.contains(lowerKeyword) ||
-                                doctorName.contains(lowerKeyword) ||
-                                medicineName.contains(lowerKeyword) ||
-                                dosage.contains(lowerKeyword)) {
-                            prescriptionList.add(new PrescriptionDisplayItem(p, item));
-                        }
-                    }
-                }
-            }
-
-            prescriptionTable.setItems(prescriptionList);
-        } catch (SQLException e) {
-            showAlert("Error", "Failed to search prescriptions: " + e.getMessage());
-        }
+        // Only the matching items come back, limited to what the user may
+        // see
+        showPrescriptions(() -> prescriptionService.searchVisiblePrescriptions(keyword));
     }
 
     @FXML
@@ -386,7 +344,7 @@ public class PrescriptionController {
     }
 
     private void handleDeletePrescription(PrescriptionDisplayItem displayItem) {
-        String patientName = getPatientName(displayItem.getPatientId());
+        String patientName = names.patientName(displayItem.getPatientId());
 
         Alert confirmAlert = new Alert(Alert.AlertType.CONFIRMATION);
         confirmAlert.setTitle("Confirm Delete");
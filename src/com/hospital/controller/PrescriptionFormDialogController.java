@@ -5,6 +5,7 @@ import com.hospital.service.DoctorService;
 import com.hospital.service.InventoryService;
 import com.hospital.service.PatientService;
 import com.hospital.service.PrescriptionService;
+import com.hospital.service.ServiceRegistry;
 import javafx.collections.FXCollections;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
@@ -13,7 +14,9 @@ import javafx.util.StringConverter;
 
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class PrescriptionFormDialogController {
 
@@ -45,15 +48,18 @@ public class PrescriptionFormDialogController {
     private boolean saveSuccessful = false;
     private boolean isEditing = false;
 
+    // Combo box items by inventory id, for selecting the edited medicine
+    private final Map<Integer, MedicalInventory> medicinesById = new HashMap<>();
+
     // Store found patient/doctor
     private Patient foundPatient;
     private Doctor foundDoctor;
 
     public void initialize() {
-        prescriptionService = new PrescriptionService();
-        inventoryService = new InventoryService();
-        patientService = new PatientService();
-        doctorService = new DoctorService();
+        prescriptionService = ServiceRegistry.getPrescriptionService();
+        inventoryService = ServiceRegistry.getInventoryService();
+        patientService = ServiceRegistry.getPatientService();
+        doctorService = ServiceRegistry.getDoctorService();
         loadMedicines();
     }
 
@@ -61,6 +67,10 @@ public class PrescriptionFormDialogController {
         try {
             List<MedicalInventory> medicines = inventoryService.getAllInventoryItems();
             medicineComboBox.setItems(FXCollections.observableArrayList(medicines));
+            medicinesById.clear();
+            for (MedicalInventory medicine : medicines) {
+                medicinesById.put(medicine.getId(), medicine);
+            }
 
             medicineComboBox.setConverter(new StringConverter<MedicalInventory>() {
                 @Override
@@ -100,32 +110,21 @@ public class PrescriptionFormDialogController {
         isEditing = true;
 
         try {
-            // Load prescription with items
-            List<Prescription> prescriptions = prescriptionService.getAllPrescriptionsWithItems();
-            for (Prescription p : prescriptions) {
-                if (p.getId() == prescriptionId) {
-                    this.prescription = p;
-                    loadPrescriptionData(p);
-
-                    // Find and select the specific item
-                    if (p.getItems() != null) {
-                        for (PrescriptionItem item : p.getItems()) {
-                            if (item.getInventoryId() == inventoryId) {
-                                this.currentItem = item;
-                                quantityField.setText(String.valueOf(item.getQuantity()));
-                                dosageField.setText(item.getDosageInstructions());
-
-                                // Select the medicine in dropdown
-                                for (MedicalInventory med : medicineComboBox.getItems()) {
-                                    if (med.getId() == inventoryId) {
-                                        medicineComboBox.setValue(med);
-                                        break;
-                                    }
-                                }
-                                break;
-                            }
-                        }
-                    }
+            Prescription p = prescriptionService.getPrescriptionWithItems(prescriptionId);
+            if (p == null) {
+                showAlert("Error", "The prescription no longer exists.");
+                return;
+            }
+            this.prescription = p;
+            loadPrescriptionData(p);
+
+            // Find and select the specific item
+            for (PrescriptionItem item : p.getItems()) {
+                if (item.getInventoryId() == inventoryId) {
+                    this.currentItem = item;
+                    quantityField.setText(String.valueOf(item.getQuantity()));
+                    dosageField.setText(item.getDosageInstructions());
+                    medicineComboBox.setValue(medicinesById.get(inventoryId));
                     break;
                 }
             }
@@ -0,0 +1,11 @@
+package com.hospital.controller;
+
+/**
+ * Implemented by view controllers that can reload their data in place.
+ * MainController calls refresh() when a cached view is shown again after it
+ * went stale, instead of re-parsing the FXML.
+ */
+public interface Refreshable {
+
+    void refresh();
+}
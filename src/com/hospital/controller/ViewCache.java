@@ -0,0 +1,123 @@
+package com.hospital.controller;
+
+import javafx.application.Platform;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * LRU cache of loaded views (root node plus controller) keyed by FXML path,
+ * so navigating back to a view re-attaches it instead of parsing the FXML
+ * and running the controller's initialize() again.
+ *
+ * A view is stale once it has not been refreshed for staleAfterMs, or after
+ * markStale(); showing a stale view calls its controller's refresh() when
+ * the controller is {@link Refreshable}. Only touched from the FX thread.
+ */
+class ViewCache {
+
+    static class CachedView {
+        private final Parent root;
+        private final Object controller;
+        private long refreshedAt = System.currentTimeMillis();
+
+        CachedView(Parent root, Object controller) {
+            this.root = root;
+            this.controller = controller;
+        }
+
+        Parent getRoot() {
+            return root;
+        }
+
+        Object getController() {
+            return controller;
+        }
+    }
+
+    private final long staleAfterMs;
+    private final Map<String, CachedView> views;
+
+    ViewCache(int maxSize, long staleAfterMs) {
+        this.staleAfterMs = staleAfterMs;
+        this.views = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedView> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached view for the path, loading it on a miss and
+     * refreshing it first if it is stale.
+     */
+    CachedView get(String fxmlPath) throws IOException {
+        CachedView view = views.get(fxmlPath);
+        if (view == null) {
+            view = load(fxmlPath);
+            views.put(fxmlPath, view);
+            return view;
+        }
+
+        if (System.currentTimeMillis() - view.refreshedAt > staleAfterMs
+                && view.controller instanceof Refreshable) {
+            ((Refreshable) view.controller).refresh();
+            view.refreshedAt = System.currentTimeMillis();
+        }
+        return view;
+    }
+
+    /**
+     * Loads the given views into the cache on the FX thread, one per
+     * Platform.runLater() so that input and rendering are handled in between.
+     * Views already cached are skipped; views that fail to load are loaded
+     * normally on first use.
+     */
+    void preload(List<String> fxmlPaths) {
+        preloadNext(new ArrayDeque<>(fxmlPaths));
+    }
+
+    private void preloadNext(Deque<String> pending) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        Platform.runLater(() -> {
+            String path = pending.poll();
+            if (!views.containsKey(path)) {
+                try {
+                    views.put(path, load(path));
+                } catch (Exception e) {
+                    System.err.println("Skipped preloading " + path + ": " + e.getMessage());
+                }
+            }
+            preloadNext(pending);
+        });
+    }
+
+    /**
+     * Forces refresh() on the next display of the view.
+     */
+    void markStale(String fxmlPath) {
+        CachedView view = views.get(fxmlPath);
+        if (view != null) {
+            view.refreshedAt = 0;
+        }
+    }
+
+    void invalidateAll() {
+        views.clear();
+    }
+
+    private CachedView load(String fxmlPath) throws IOException {
+        FXMLLoader loader = new FXMLLoader(getClass().getResource(fxmlPath));
+        Parent root = loader.load();
+        return new CachedView(root, loader.getController());
+    }
+}
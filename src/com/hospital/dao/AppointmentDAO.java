@@ -4,12 +4,23 @@ import com.hospital.model.Appointment;
 import com.hospital.util.DBUtil;
 
 import java.sql.*;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 public class AppointmentDAO {
 
+    // Sort keys accepted by getAppointmentsPage
+    private static final Map<String, String> PAGE_SORT_COLUMNS = Map.of(
+            "id", "id",
+            "appointmentDate", "appointment_date");
+
     public void addAppointment(Appointment appointment) throws SQLException {
         String sql = "INSERT INTO appointments (patient_id, doctor_id, appointment_date, status, notes) VALUES (?, ?, ?, ?, ?)";
         try (Connection conn = DBUtil.getConnection();
@@ -69,6 +80,21 @@ public class AppointmentDAO {
         }
     }
 
+    public Appointment getAppointmentById(int id) throws SQLException {
+        String sql = "SELECT * FROM appointments WHERE id = ?";
+        try (Connection conn = DBUtil.getConnection();
+                PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, id);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return mapResultSetToAppointment(rs);
+                }
+            }
+        }
+        return null;
+    }
+
     public List<Appointment> getAllAppointments() throws SQLException {
         List<Appointment> appointments = new ArrayList<>();
         String sql = "SELECT * FROM appointments";
@@ -83,6 +109,128 @@ public class AppointmentDAO {
         return appointments;
     }
 
+    /**
+     * Streams every appointment through a server-side cursor. Close the
+     * stream (try-with-resources) to release its connection.
+     */
+    public Stream<Appointment> streamAllAppointments() throws SQLException {
+        return CursorQuery.stream("SELECT * FROM appointments", this::mapResultSetToAppointment);
+    }
+
+    /**
+     * Passes every appointment to the action without buffering the full
+     * table.
+     */
+    public void forEachAppointment(Consumer<? super Appointment> action) throws SQLException {
+        CursorQuery.forEach("SELECT * FROM appointments", this::mapResultSetToAppointment, action);
+    }
+
+    /**
+     * Keyset-paginated appointment listing.
+     * Supported sort keys: id, appointmentDate
+     */
+    public Page<Appointment> getAppointmentsPage(PageRequest request) throws SQLException {
+        return KeysetQuery.fetchPage("SELECT * FROM appointments", "id", PAGE_SORT_COLUMNS, request,
+                this::mapResultSetToAppointment, Appointment::getId,
+                a -> "appointmentDate".equals(request.getSortKey())
+                        ? Timestamp.valueOf(a.getAppointmentDate())
+                        : a.getId());
+    }
+
+    /**
+     * Returns the appointments matching every filter set on the criteria,
+     * newest first and capped at its limit.
+     */
+    public List<Appointment> searchAppointments(AppointmentSearchCriteria criteria) throws SQLException {
+        StringBuilder sql = new StringBuilder("SELECT a.* FROM appointments a WHERE 1=1");
+        List<Object> params = new ArrayList<>();
+
+        if (criteria.getName() != null) {
+            String pattern = LikePatterns.contains(criteria.getName().toLowerCase());
+            sql.append(" AND (a.patient_id IN (SELECT id FROM patients"
+                    + " WHERE LOWER(first_name || ' ' || last_name) LIKE ? ESCAPE '\\')"
+                    + " OR a.doctor_id IN (SELECT id FROM doctors"
+                    + " WHERE LOWER(first_name || ' ' || last_name) LIKE ? ESCAPE '\\'))");
+            params.add(pattern);
+            params.add(pattern);
+        }
+        if (criteria.getPatientId() != null) {
+            sql.append(" AND a.patient_id = ?");
+            params.add(criteria.getPatientId());
+        }
+        if (criteria.getDoctorId() != null) {
+            sql.append(" AND a.doctor_id = ?");
+            params.add(criteria.getDoctorId());
+        }
+        if (criteria.getStatus() != null) {
+            sql.append(" AND a.status = ?");
+            params.add(criteria.getStatus());
+        }
+        if (criteria.getFromDate() != null) {
+            sql.append(" AND a.appointment_date >= ?");
+            params.add(Timestamp.valueOf(criteria.getFromDate().atStartOfDay()));
+        }
+        if (criteria.getToDate() != null) {
+            // Half-open so the whole of the last day is included
+            sql.append(" AND a.appointment_date < ?");
+            params.add(Timestamp.valueOf(criteria.getToDate().plusDays(1).atStartOfDay()));
+        }
+        sql.append(" ORDER BY a.appointment_date DESC, a.id DESC LIMIT ?");
+        params.add(criteria.getLimit());
+
+        List<Appointment> appointments = new ArrayList<>();
+        try (Connection conn = DBUtil.getConnection();
+                PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+            for (int i = 0; i < params.size(); i++) {
+                pstmt.setObject(i + 1, params.get(i));
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    appointments.add(mapResultSetToAppointment(rs));
+                }
+            }
+        }
+        return appointments;
+    }
+
+    /**
+     * Counts appointments per day of week in the database. Either date bound
+     * may be null; toDate is inclusive. Days without appointments are
+     * absent.
+     */
+    public Map<DayOfWeek, Integer> countAppointmentsPerDayOfWeek(LocalDate fromDate, LocalDate toDate)
+            throws SQLException {
+        StringBuilder sql = new StringBuilder(
+                "SELECT dow, COUNT(*) AS appointment_count FROM (" +
+                "SELECT EXTRACT(DOW FROM appointment_date) AS dow FROM appointments WHERE 1=1");
+        List<Timestamp> params = new ArrayList<>();
+        if (fromDate != null) {
+            sql.append(" AND appointment_date >= ?");
+            params.add(Timestamp.valueOf(fromDate.atStartOfDay()));
+        }
+        if (toDate != null) {
+            sql.append(" AND appointment_date < ?");
+            params.add(Timestamp.valueOf(toDate.plusDays(1).atStartOfDay()));
+        }
+        sql.append(") a GROUP BY dow");
+
+        Map<DayOfWeek, Integer> counts = new EnumMap<>(DayOfWeek.class);
+        try (Connection conn = DBUtil.getConnection();
+                PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+            for (int i = 0; i < params.size(); i++) {
+                pstmt.setTimestamp(i + 1, params.get(i));
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    // EXTRACT(DOW ...) numbers Sunday 0
+                    int dow = rs.getInt("dow");
+                    counts.put(DayOfWeek.of(dow == 0 ? 7 : dow), rs.getInt("appointment_count"));
+                }
+            }
+        }
+        return counts;
+    }
+
     private Appointment mapResultSetToAppointment(ResultSet rs) throws SQLException {
         return new Appointment(
                 rs.getInt("id"),
@@ -0,0 +1,92 @@
+package com.hospital.dao;
+
+import java.time.LocalDate;
+
+/**
+ * Filters for AppointmentDAO.searchAppointments. Every filter is optional;
+ * unset filters match everything. Results are capped at the limit, newest
+ * appointments first.
+ */
+public class AppointmentSearchCriteria {
+
+    public static final int DEFAULT_LIMIT = 200;
+    public static final int MAX_LIMIT = PageRequest.MAX_PAGE_SIZE;
+
+    private String name;
+    private String status;
+    private Integer patientId;
+    private Integer doctorId;
+    private LocalDate fromDate;
+    private LocalDate toDate;
+    private int limit = DEFAULT_LIMIT;
+
+    /**
+     * Matches appointments whose patient or doctor full name contains the
+     * text, case-insensitively.
+     */
+    public AppointmentSearchCriteria name(String name) {
+        this.name = name == null || name.isBlank() ? null : name.trim();
+        return this;
+    }
+
+    public AppointmentSearchCriteria status(String status) {
+        this.status = status == null || status.isBlank() ? null : status;
+        return this;
+    }
+
+    public AppointmentSearchCriteria patientId(Integer patientId) {
+        this.patientId = patientId;
+        return this;
+    }
+
+    public AppointmentSearchCriteria doctorId(Integer doctorId) {
+        this.doctorId = doctorId;
+        return this;
+    }
+
+    /**
+     * Restricts to appointments on or after fromDate and on or before toDate.
+     * Either bound may be null.
+     */
+    public AppointmentSearchCriteria between(LocalDate fromDate, LocalDate toDate) {
+        this.fromDate = fromDate;
+        this.toDate = toDate;
+        return this;
+    }
+
+    public AppointmentSearchCriteria limit(int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+        this.limit = limit;
+        return this;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public Integer getPatientId() {
+        return patientId;
+    }
+
+    public Integer getDoctorId() {
+        return doctorId;
+    }
+
+    public LocalDate getFromDate() {
+        return fromDate;
+    }
+
+    public LocalDate getToDate() {
+        return toDate;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+}
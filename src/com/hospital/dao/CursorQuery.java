@@ -0,0 +1,111 @@
+package com.hospital.dao;
+
+import com.hospital.util.DBUtil;
+import com.hospital.util.EnvUtil;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Runs a query through a server-side cursor so rows are fetched in batches
+ * of FETCH_SIZE and mapped one at a time, instead of the whole result being
+ * buffered in memory.
+ *
+ * The PostgreSQL driver only uses a cursor when autocommit is off and a
+ * fetch size is set, so both are applied for the duration of the query.
+ */
+class CursorQuery {
+
+    static final int FETCH_SIZE = EnvUtil.getInt("DB_FETCH_SIZE", 500);
+
+    private CursorQuery() {
+    }
+
+    /**
+     * Maps every row and passes it to the action. Nothing is retained after
+     * the action returns.
+     */
+    static <T> void forEach(String sql, RowMapper<T> mapper, Consumer<? super T> action) throws SQLException {
+        try (Connection conn = DBUtil.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setFetchSize(FETCH_SIZE);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        action.accept(mapper.map(rs));
+                    }
+                }
+                conn.commit();
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * Returns a lazily populated stream over the query. The stream holds a
+     * pooled connection until it is closed, so always use it in a
+     * try-with-resources block. SQL errors while reading surface as
+     * RuntimeExceptions.
+     */
+    static <T> Stream<T> stream(String sql, RowMapper<T> mapper) throws SQLException {
+        Connection conn = DBUtil.getConnection();
+        PreparedStatement pstmt = null;
+        try {
+            conn.setAutoCommit(false);
+            pstmt = conn.prepareStatement(sql);
+            pstmt.setFetchSize(FETCH_SIZE);
+            ResultSet rs = pstmt.executeQuery();
+
+            Spliterator<T> rows = new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE,
+                    Spliterator.ORDERED | Spliterator.NONNULL) {
+                @Override
+                public boolean tryAdvance(Consumer<? super T> action) {
+                    try {
+                        if (!rs.next()) {
+                            return false;
+                        }
+                        action.accept(mapper.map(rs));
+                        return true;
+                    } catch (SQLException e) {
+                        throw new RuntimeException("Failed to read row from cursor", e);
+                    }
+                }
+            };
+
+            PreparedStatement openStatement = pstmt;
+            return StreamSupport.stream(rows, false).onClose(() -> close(conn, openStatement, rs));
+        } catch (SQLException | RuntimeException e) {
+            close(conn, pstmt, null);
+            throw e;
+        }
+    }
+
+    private static void close(Connection conn, PreparedStatement pstmt, ResultSet rs) {
+        try {
+            if (rs != null) {
+                rs.close();
+            }
+            if (pstmt != null) {
+                pstmt.close();
+            }
+            conn.commit();
+            conn.setAutoCommit(true);
+        } catch (SQLException e) {
+            System.err.println("Failed to close cursor: " + e.getMessage());
+        } finally {
+            try {
+                conn.close();
+            } catch (SQLException e) {
+                // Connection is discarded by the pool if it is broken
+            }
+        }
+    }
+}
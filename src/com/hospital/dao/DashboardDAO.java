@@ -0,0 +1,74 @@
+package com.hospital.dao;
+
+import com.hospital.model.DashboardSnapshot;
+import com.hospital.util.DBUtil;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class DashboardDAO {
+
+    // Indexed by PostgreSQL's EXTRACT(DOW ...): 0=Sunday
+    private static final String[] DAY_NAMES = { "Sun", "Mon", "Tue", "Wed", "Thu", "Fri", "Sat" };
+
+    // One row per figure, tagged with the metric it belongs to, so the whole
+    // dashboard comes back from a single statement
+    private static final String SNAPSHOT_SQL =
+            "SELECT 'patients' AS metric, CAST(NULL AS VARCHAR) AS label, COUNT(*) AS figure FROM patients " +
+            "UNION ALL SELECT 'doctors', NULL, COUNT(*) FROM doctors " +
+            "UNION ALL SELECT 'appointments', NULL, COUNT(*) FROM appointments " +
+            "UNION ALL SELECT 'departments', NULL, COUNT(*) FROM departments " +
+            "UNION ALL SELECT 'patients_per_day', CAST(dow AS VARCHAR), COUNT(*) " +
+            "FROM (SELECT EXTRACT(DOW FROM created_at) AS dow FROM patients WHERE created_at IS NOT NULL) p " +
+            "GROUP BY dow " +
+            "UNION ALL SELECT 'doctors_per_department', d.name, COUNT(doc.id) " +
+            "FROM departments d JOIN doctors doc ON d.id = doc.department_id GROUP BY d.id, d.name";
+
+    public DashboardSnapshot getSnapshot() throws SQLException {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        Map<String, Integer> patientsPerDay = new LinkedHashMap<>();
+        for (String day : new String[] { "Mon", "Tue", "Wed", "Thu", "Fri", "Sat", "Sun" }) {
+            patientsPerDay.put(day, 0);
+        }
+        List<Map.Entry<String, Integer>> departments = new ArrayList<>();
+
+        try (Connection conn = DBUtil.getConnection();
+                PreparedStatement pstmt = conn.prepareStatement(SNAPSHOT_SQL);
+                ResultSet rs = pstmt.executeQuery()) {
+
+            while (rs.next()) {
+                String metric = rs.getString("metric");
+                String label = rs.getString("label");
+                int value = rs.getInt("figure");
+                switch (metric) {
+                    case "patients_per_day":
+                        patientsPerDay.put(DAY_NAMES[(int) Double.parseDouble(label)], value);
+                        break;
+                    case "doctors_per_department":
+                        if (label != null) {
+                            departments.add(Map.entry(label, value));
+                        }
+                        break;
+                    default:
+                        counts.put(metric, value);
+                }
+            }
+        }
+
+        departments.sort(Map.Entry.<String, Integer>comparingByValue().reversed());
+        Map<String, Integer> doctorsPerDepartment = new LinkedHashMap<>();
+        for (Map.Entry<String, Integer> e : departments) {
+            doctorsPerDepartment.merge(e.getKey(), e.getValue(), Integer::sum);
+        }
+
+        return new DashboardSnapshot(
+                counts.getOrDefault("patients", 0),
+                counts.getOrDefault("doctors", 0),
+                counts.getOrDefault("appointments", 0),
+                counts.getOrDefault("departments", 0),
+                patientsPerDay, doctorsPerDepartment);
+    }
+}
@@ -6,6 +6,7 @@ import com.hospital.util.DBUtil;
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 public class DoctorDAO {
@@ -104,6 +105,14 @@ public class DoctorDAO {
         return doctors;
     }
 
+    /**
+     * Loads the doctors with the given ids in batched queries. Ids with no
+     * doctor are left out of the result.
+     */
+    public List<Doctor> getDoctorsByIds(Collection<Integer> ids) throws SQLException {
+        return IdBatchQuery.fetch("SELECT * FROM doctors WHERE id = ANY(?)", ids, this::mapResultSetToDoctor);
+    }
+
     public Doctor getDoctorById(int id) throws SQLException {
         String sql = "SELECT * FROM doctors WHERE id=?";
         try (Connection conn = DBUtil.getConnection();
@@ -193,4 +202,26 @@ public class DoctorDAO {
         }
         return stats;
     }
+
+    /**
+     * Counts doctors per specialization in the database; doctors without one
+     * are counted under "Unknown".
+     */
+    public java.util.Map<String, Integer> countDoctorsBySpecialization() throws SQLException {
+        java.util.Map<String, Integer> stats = new java.util.HashMap<>();
+
+        String sql = "SELECT spec, COUNT(*) AS doctor_count FROM (" +
+                "SELECT COALESCE(NULLIF(specialization, ''), 'Unknown') AS spec FROM doctors) d " +
+                "GROUP BY spec";
+
+        try (Connection conn = DBUtil.getConnection();
+                PreparedStatement pstmt = conn.prepareStatement(sql);
+                ResultSet rs = pstmt.executeQuery()) {
+
+            while (rs.next()) {
+                stats.merge(rs.getString("spec"), rs.getInt("doctor_count"), Integer::sum);
+            }
+        }
+        return stats;
+    }
 }
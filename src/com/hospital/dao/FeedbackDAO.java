@@ -6,9 +6,19 @@ import com.hospital.util.DBUtil;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 public class FeedbackDAO {
 
+    private static final String SELECT_WITH_PATIENT_NAME = "SELECT pf.*, p.first_name, p.last_name " +
+            "FROM patient_feedback pf " +
+            "JOIN patients p ON pf.patient_id = p.id";
+
+    // Sort keys accepted by getFeedbackPage
+    private static final Map<String, String> PAGE_SORT_COLUMNS = Map.of(
+            "id", "pf.id",
+            "feedbackDate", "pf.feedback_date");
+
     public void addFeedback(PatientFeedback feedback) throws SQLException {
         String sql = "INSERT INTO patient_feedback (patient_id, rating, comments) VALUES (?, ?, ?)";
         try (Connection conn = DBUtil.getConnection();
@@ -32,30 +42,71 @@ public class FeedbackDAO {
     public List<PatientFeedback> getAllFeedback() throws SQLException {
         List<PatientFeedback> feedbackList = new ArrayList<>();
         // Updated query to join with patients table to get First and Last Name
-        String sql = "SELECT pf.*, p.first_name, p.last_name " +
-                "FROM patient_feedback pf " +
-                "JOIN patients p ON pf.patient_id = p.id " +
-                "ORDER BY pf.feedback_date DESC";
+        String sql = SELECT_WITH_PATIENT_NAME + " ORDER BY pf.feedback_date DESC";
 
         try (Connection conn = DBUtil.getConnection();
                 Statement stmt = conn.createStatement();
                 ResultSet rs = stmt.executeQuery(sql)) {
 
             while (rs.next()) {
-                PatientFeedback fb = new PatientFeedback(
-                        rs.getInt("id"),
-                        rs.getInt("patient_id"),
-                        rs.getInt("rating"),
-                        rs.getString("comments"));
-                fb.setFeedbackDate(rs.getTimestamp("feedback_date"));
-
-                // Populate the transient name field
-                String fullName = rs.getString("first_name") + " " + rs.getString("last_name");
-                fb.setPatientName(fullName);
-
-                feedbackList.add(fb);
+                feedbackList.add(mapResultSetToFeedback(rs));
             }
         }
         return feedbackList;
     }
+
+    public List<PatientFeedback> getFeedbackByPatientId(int patientId) throws SQLException {
+        String sql = SELECT_WITH_PATIENT_NAME + " WHERE pf.patient_id = ? ORDER BY pf.feedback_date DESC";
+        return queryFeedback(sql, patientId);
+    }
+
+    /**
+     * Feedback from patients who have had an appointment with the doctor,
+     * newest first.
+     */
+    public List<PatientFeedback> getFeedbackForDoctor(int doctorId) throws SQLException {
+        String sql = SELECT_WITH_PATIENT_NAME
+                + " WHERE pf.patient_id IN (SELECT a.patient_id FROM appointments a WHERE a.doctor_id = ?)"
+                + " ORDER BY pf.feedback_date DESC";
+        return queryFeedback(sql, doctorId);
+    }
+
+    private List<PatientFeedback> queryFeedback(String sql, int id) throws SQLException {
+        List<PatientFeedback> feedbackList = new ArrayList<>();
+        try (Connection conn = DBUtil.getConnection();
+                PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, id);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    feedbackList.add(mapResultSetToFeedback(rs));
+                }
+            }
+        }
+        return feedbackList;
+    }
+
+    /**
+     * Keyset-paginated feedback listing, typically newest first via
+     * PageRequest.firstDescending(size, "feedbackDate").
+     * Supported sort keys: id, feedbackDate
+     */
+    public Page<PatientFeedback> getFeedbackPage(PageRequest request) throws SQLException {
+        return KeysetQuery.fetchPage(SELECT_WITH_PATIENT_NAME, "pf.id", PAGE_SORT_COLUMNS, request,
+                this::mapResultSetToFeedback, PatientFeedback::getId,
+                fb -> "feedbackDate".equals(request.getSortKey()) ? fb.getFeedbackDate() : fb.getId());
+    }
+
+    private PatientFeedback mapResultSetToFeedback(ResultSet rs) throws SQLException {
+        PatientFeedback fb = new PatientFeedback(
+                rs.getInt("id"),
+                rs.getInt("patient_id"),
+                rs.getInt("rating"),
+                rs.getString("comments"));
+        fb.setFeedbackDate(rs.getTimestamp("feedback_date"));
+
+        // Populate the transient name field
+        String fullName = rs.getString("first_name") + " " + rs.getString("last_name");
+        fb.setPatientName(fullName);
+        return fb;
+    }
 }
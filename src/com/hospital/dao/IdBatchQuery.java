@@ -0,0 +1,72 @@
+package com.hospital.dao;
+
+import com.hospital.util.DBUtil;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * Loads rows for many ids with one "= ANY(?)" query per BATCH_SIZE ids,
+ * instead of one query per id.
+ */
+class IdBatchQuery {
+
+    // Upper bound on ids sent in one ANY(?) array
+    static final int BATCH_SIZE = 1000;
+
+    private IdBatchQuery() {
+    }
+
+    /**
+     * @param sql query with a single "id = ANY(?)" style parameter
+     * @param ids ids to look up; duplicates are sent once
+     * @return mapped rows, in no particular order; ids without a row are
+     *         simply absent
+     */
+    static <T> List<T> fetch(String sql, Collection<Integer> ids, RowMapper<T> mapper) throws SQLException {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        try (Connection conn = DBUtil.getConnection()) {
+            return fetch(conn, sql, ids, mapper);
+        }
+    }
+
+    /**
+     * Same as fetch(sql, ids, mapper), on a connection the caller already
+     * holds. Rows of one batch come back in the order the query sorts them.
+     */
+    static <T> List<T> fetch(Connection conn, String sql, Collection<Integer> ids, RowMapper<T> mapper)
+            throws SQLException {
+        List<T> results = new ArrayList<>();
+        if (ids.isEmpty()) {
+            return results;
+        }
+
+        List<Integer> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (int from = 0; from < distinct.size(); from += BATCH_SIZE) {
+                List<Integer> chunk = distinct.subList(from, Math.min(from + BATCH_SIZE, distinct.size()));
+                Array idArray = conn.createArrayOf("integer", chunk.toArray());
+                try {
+                    pstmt.setArray(1, idArray);
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            results.add(mapper.map(rs));
+                        }
+                    }
+                } finally {
+                    idArray.free();
+                }
+            }
+        }
+        return results;
+    }
+}
@@ -0,0 +1,14 @@
+package com.hospital.dao;
+
+/**
+ * Receives progress updates from long-running bulk imports.
+ */
+@FunctionalInterface
+public interface ImportProgressListener {
+
+    /**
+     * @param rowsProcessed rows sent to the database so far
+     * @param totalRows     rows in the whole import
+     */
+    void onProgress(int rowsProcessed, int totalRows);
+}
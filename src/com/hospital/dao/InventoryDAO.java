@@ -6,9 +6,15 @@ import com.hospital.util.DBUtil;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 public class InventoryDAO {
 
+    // Sort keys accepted by getItemsPage
+    private static final Map<String, String> PAGE_SORT_COLUMNS = Map.of(
+            "id", "id",
+            "itemName", "item_name");
+
     public void addItem(MedicalInventory item) throws SQLException {
         String sql = "INSERT INTO medical_inventory (item_name, category, quantity, unit_price) VALUES (?, ?, ?, ?)";
         try (Connection conn = DBUtil.getConnection();
@@ -68,6 +74,16 @@ public class InventoryDAO {
         return items;
     }
 
+    /**
+     * Keyset-paginated inventory listing.
+     * Supported sort keys: id, itemName
+     */
+    public Page<MedicalInventory> getItemsPage(PageRequest request) throws SQLException {
+        return KeysetQuery.fetchPage("SELECT * FROM medical_inventory", "id", PAGE_SORT_COLUMNS, request,
+                this::mapResultSetToItem, MedicalInventory::getId,
+                item -> "itemName".equals(request.getSortKey()) ? item.getItemName() : item.getId());
+    }
+
     public MedicalInventory getItemById(int id) throws SQLException {
         String sql = "SELECT * FROM medical_inventory WHERE id=?";
         try (Connection conn = DBUtil.getConnection();
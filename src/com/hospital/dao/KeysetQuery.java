@@ -0,0 +1,92 @@
+package com.hospital.dao;
+
+import com.hospital.util.DBUtil;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Shared implementation of keyset pagination for the list DAOs.
+ *
+ * Instead of OFFSET, each page continues from the (sort value, id) of the
+ * last row of the previous page, so the database can seek straight to the
+ * page through an index on (sort column, id).
+ */
+class KeysetQuery {
+
+    private KeysetQuery() {
+    }
+
+    /**
+     * Runs one page of a keyset query.
+     *
+     * @param baseSql     SELECT ... FROM ... without WHERE or ORDER BY
+     * @param idColumn    unique tie-breaker column, e.g. "id" or "pf.id"
+     * @param sortColumns sort key to column name; the only keys accepted
+     * @param sortValueOf reads the sort value for a key back from a mapped row
+     */
+    static <T> Page<T> fetchPage(String baseSql, String idColumn, Map<String, String> sortColumns,
+            PageRequest request, RowMapper<T> mapper, Function<T, Integer> idOf,
+            Function<T, Object> sortValueOf) throws SQLException {
+        String sortColumn = sortColumns.get(request.getSortKey());
+        if (sortColumn == null) {
+            throw new IllegalArgumentException("Unsupported sort key: " + request.getSortKey()
+                    + " (expected one of " + sortColumns.keySet() + ")");
+        }
+
+        boolean sortById = sortColumn.equals(idColumn);
+        String direction = request.isDescending() ? "DESC" : "ASC";
+        String comparison = request.isDescending() ? "<" : ">";
+
+        StringBuilder sql = new StringBuilder(baseSql);
+        if (request.getAfter() != null) {
+            if (sortById) {
+                sql.append(" WHERE ").append(idColumn).append(' ').append(comparison).append(" ?");
+            } else {
+                sql.append(" WHERE (").append(sortColumn).append(", ").append(idColumn).append(") ")
+                        .append(comparison).append(" (?, ?)");
+            }
+        }
+        sql.append(" ORDER BY ").append(sortColumn).append(' ').append(direction);
+        if (!sortById) {
+            sql.append(", ").append(idColumn).append(' ').append(direction);
+        }
+        sql.append(" LIMIT ?");
+
+        List<T> items = new ArrayList<>();
+        try (Connection conn = DBUtil.getConnection();
+                PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+
+            int index = 1;
+            Page.Cursor after = request.getAfter();
+            if (after != null) {
+                if (!sortById) {
+                    pstmt.setObject(index++, after.getSortValue());
+                }
+                pstmt.setInt(index++, after.getId());
+            }
+            // One extra row tells us whether another page exists
+            pstmt.setInt(index, request.getPageSize() + 1);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    items.add(mapper.map(rs));
+                }
+            }
+        }
+
+        Page.Cursor nextCursor = null;
+        if (items.size() > request.getPageSize()) {
+            items.remove(items.size() - 1);
+            T last = items.get(items.size() - 1);
+            nextCursor = new Page.Cursor(sortValueOf.apply(last), idOf.apply(last));
+        }
+        return new Page<>(items, nextCursor);
+    }
+}
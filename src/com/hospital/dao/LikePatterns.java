@@ -0,0 +1,23 @@
+package com.hospital.dao;
+
+/**
+ * Builds LIKE patterns from user input. The wildcards are escaped so that a
+ * search for "o_brien" or "50%" matches them literally; queries using these
+ * patterns must declare ESCAPE '\'.
+ */
+final class LikePatterns {
+
+    private LikePatterns() {
+    }
+
+    static String escape(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    /**
+     * Pattern matching any value containing text.
+     */
+    static String contains(String text) {
+        return "%" + escape(text) + "%";
+    }
+}
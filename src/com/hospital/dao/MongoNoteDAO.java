@@ -1,102 +1,378 @@
 package com.hospital.dao;
 
 import com.hospital.model.PatientNote;
-import com.mongodb.ConnectionString;
-import com.mongodb.MongoClientSettings;
-import com.mongodb.client.MongoClient;
-import com.mongodb.client.MongoClients;
+import com.hospital.util.EnvUtil;
+import com.hospital.util.MongoUtil;
+import com.hospital.util.PerformanceLogger;
+import com.mongodb.MongoException;
+import com.mongodb.client.FindIterable;
 import com.mongodb.client.MongoCollection;
-import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.WriteModel;
+import org.bson.BsonValue;
 import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DocumentCodec;
+import org.bson.conversions.Bson;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 public class MongoNoteDAO {
 
-    private static final String DB_NAME = "hospital_db";
-    private static final String COLLECTION_NAME = "patient_notes";
-    private String connectionString;
+    // Same order as the patientId_createdAt_id index
+    private static final Comparator<PatientNote> NEWEST_FIRST = Comparator
+            .comparing(PatientNote::getCreatedAt, Comparator.nullsLast(Comparator.<LocalDateTime>reverseOrder()))
+            .thenComparing(PatientNote::getId, Comparator.nullsLast(Comparator.<String>reverseOrder()));
 
-    private MongoCollection<Document> collection;
+    private static final int MIGRATION_BATCH_SIZE = 500;
+    // In the journal directory; notes MongoDB refused, one JSON line each
+    private static final String REJECTED_NOTES_FILE = "rejected-notes.jsonl";
+    private static final DocumentCodec DOCUMENT_CODEC = new DocumentCodec();
+
+    // Shared by every DAO instance, like the client behind it
+    private static boolean sharedOpened;
+    private static NoteJournal sharedJournal;
+    private static NoteReplicator sharedReplicator;
+    private static boolean migrationStarted;
+
+    private final MongoCollection<Document> collection;
+    private final NoteJournal journal;
+    private final NoteReplicator replicator;
 
     public MongoNoteDAO() {
-        this.connectionString = com.hospital.util.EnvUtil.get("MONGODB_URI");
+        // Null when MongoDB is not configured; notes then stay in the
+        // local journal
+        this.collection = MongoUtil.getNotesCollection();
+        openShared(collection);
+        this.journal = sharedJournal;
+        this.replicator = sharedReplicator;
+    }
 
-        // Only attempt connection if string is configured
-        if (connectionString == null || connectionString.isEmpty() || connectionString.contains("<password>")) {
-            System.out.println("⚠️ MongoDB connection string not configured in .env. Patient notes will not be saved.");
+    private static synchronized void openShared(MongoCollection<Document> collection) {
+        if (sharedOpened) {
             return;
         }
-
+        sharedOpened = true;
+        Path journalDir = Paths.get(EnvUtil.get("NOTES_JOURNAL_DIR", "note_journal"));
         try {
-            ConnectionString connString = new ConnectionString(connectionString);
-            MongoClientSettings settings = MongoClientSettings.builder()
-                    .applyConnectionString(connString)
-                    .build();
-            MongoClient mongoClient = MongoClients.create(settings);
-            MongoDatabase database = mongoClient
-                    .getDatabase(com.hospital.util.EnvUtil.get("MONGODB_DATABASE", DB_NAME));
-            collection = database.getCollection(com.hospital.util.EnvUtil.get("MONGODB_COLLECTION", COLLECTION_NAME));
-            System.out.println("✅ Connected to MongoDB Atlas successfully.");
-        } catch (Exception e) {
-            System.err.println("❌ Failed to connect to MongoDB: " + e.getMessage());
-            e.printStackTrace();
+            sharedJournal = new NoteJournal(journalDir,
+                    EnvUtil.getInt("NOTES_SEGMENT_BYTES", 8 * 1024 * 1024),
+                    EnvUtil.getLong("NOTES_MAX_UNSENT_BYTES", 64L * 1024 * 1024),
+                    EnvUtil.getLong("NOTES_JOURNAL_MAX_BYTES", 256L * 1024 * 1024));
+        } catch (IOException e) {
+            // Without a journal notes are written straight to MongoDB
+            System.err.println("⚠️ Could not open the patient note journal: " + e.getMessage());
+        }
+        if (collection == null) {
+            return;
+        }
+        startDateMigration(collection);
+        if (sharedJournal != null) {
+            sharedReplicator = new NoteReplicator(sharedJournal, collection, journalDir.resolve(REJECTED_NOTES_FILE),
+                    EnvUtil.getInt("NOTES_BATCH_SIZE", 100),
+                    EnvUtil.getLong("NOTES_RETRY_BASE_MS", 500),
+                    EnvUtil.getLong("NOTES_RETRY_MAX_MS", 30_000));
+            Runtime.getRuntime().addShutdownHook(new Thread(sharedReplicator::close, "note-replicator-shutdown"));
+        }
+    }
+
+    /**
+     * Converts notes written before createdAt was stored as a BSON date, once
+     * per run and off the calling thread. Until it finishes, those notes sort
+     * after all dated ones and are missed by date filters.
+     */
+    private static synchronized void startDateMigration(MongoCollection<Document> collection) {
+        if (migrationStarted) {
+            return;
+        }
+        migrationStarted = true;
+        Thread migration = new Thread(() -> {
+            try {
+                long converted = migrateStringDates(collection);
+                if (converted > 0) {
+                    System.out.println("✅ Converted createdAt to a date on " + converted + " patient note(s).");
+                }
+            } catch (RuntimeException e) {
+                System.err.println("⚠️ Patient note date migration failed: " + e.getMessage());
+            }
+        }, "note-date-migration");
+        migration.setDaemon(true);
+        migration.start();
+    }
+
+    /**
+     * Rewrites string createdAt values (ISO local date-times) as BSON dates,
+     * in batches. Safe to run again or concurrently with new writes: each
+     * update only applies while the note still holds the string it was read
+     * with.
+     *
+     * @return the number of notes converted
+     */
+    public static long migrateStringDates(MongoCollection<Document> collection) {
+        long start = System.nanoTime();
+        long converted = 0;
+        Bson stringDates = Filters.type("createdAt", "string");
+        while (true) {
+            List<WriteModel<Document>> updates = new ArrayList<>(MIGRATION_BATCH_SIZE);
+            for (Document doc : collection.find(stringDates)
+                    .projection(Projections.include("createdAt"))
+                    .limit(MIGRATION_BATCH_SIZE)) {
+                String value = doc.getString("createdAt");
+                Date date;
+                try {
+                    date = toDate(LocalDateTime.parse(value));
+                } catch (RuntimeException e) {
+                    // Left as is; it would be picked up again on every batch
+                    System.err.println("⚠️ Unreadable createdAt on note " + doc.get("_id") + ": " + value);
+                    stringDates = Filters.and(stringDates, Filters.ne("_id", doc.get("_id")));
+                    continue;
+                }
+                updates.add(new UpdateOneModel<>(
+                        Filters.and(Filters.eq("_id", doc.get("_id")), Filters.eq("createdAt", value)),
+                        Updates.set("createdAt", date)));
+            }
+            if (updates.isEmpty()) {
+                break;
+            }
+            converted += collection.bulkWrite(updates).getModifiedCount();
         }
+        PerformanceLogger.log("migrateNoteDates (MongoDB)", start);
+        return converted;
     }
 
+    /**
+     * Saves the note to the local journal and returns; it is copied to
+     * MongoDB in the background.
+     *
+     * @throws UncheckedIOException  if the note cannot be written locally
+     * @throws IllegalStateException if too many notes are still waiting for
+     *                               MongoDB
+     */
     public void addNote(PatientNote note) {
-        if (collection == null)
+        Document doc = toDocument(note);
+        if (journal == null) {
+            if (collection != null) {
+                collection.insertOne(doc);
+            }
             return;
+        }
+        try {
+            journal.append(note.getPatientId(), doc);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to save note locally", e);
+        }
+        if (replicator != null) {
+            replicator.wakeUp();
+        }
+    }
 
-        Document doc = new Document("_id", note.getId())
-                .append("patientId", note.getPatientId())
-                .append("category", note.getCategory())
-                .append("createdAt", note.getCreatedAt().toString()); // Simple string storage for date
+    /**
+     * One page of the patient's notes, newest first.
+     *
+     * Notes in the local journal are read from it directly. MongoDB adds the
+     * notes written on other terminals; it is skipped while the driver's
+     * monitor finds no primary or the replicator's last batch failed, so
+     * reads keep working from the journal alone without waiting on Atlas.
+     */
+    public NotePage getNotes(NoteQuery query) {
+        List<PatientNote> notes = new ArrayList<>();
+        Set<String> ids = new HashSet<>();
+        if (journal != null) {
+            readJournalPage(query, notes, ids);
+        }
 
-        // Add dynamic content
-        if (note.getContent() != null) {
-            Document contentDoc = new Document();
-            for (Map.Entry<String, String> entry : note.getContent().entrySet()) {
-                contentDoc.append(entry.getKey(), entry.getValue());
+        if (collection != null && MongoUtil.isReachable() && (replicator == null || replicator.isOnline())) {
+            // Filter and order both come from the patientId_createdAt_id
+            // index; one extra note tells whether another page follows
+            FindIterable<Document> found = collection.find(toFilter(query))
+                    .sort(Sorts.descending("createdAt", "_id"))
+                    .limit(query.getLimit() + 1);
+            if (query.isHeadersOnly()) {
+                found = found.projection(Projections.exclude("content"));
+            }
+            try {
+                for (Document doc : found) {
+                    PatientNote note = toNote(doc);
+                    if (ids.add(note.getId())) {
+                        notes.add(note);
+                    }
+                }
+            } catch (MongoException e) {
+                System.err.println("⚠️ Could not read patient notes from MongoDB, showing local notes: "
+                        + e.getMessage());
             }
-            doc.append("content", contentDoc);
         }
 
-        collection.insertOne(doc);
+        notes.sort(NEWEST_FIRST);
+        boolean hasMore = notes.size() > query.getLimit();
+        if (hasMore) {
+            notes.subList(query.getLimit(), notes.size()).clear();
+        }
+        return new NotePage(notes, hasMore);
     }
 
-    public List<PatientNote> getNotesByPatientId(int patientId) {
-        List<PatientNote> notes = new ArrayList<>();
-        if (collection == null)
-            return notes;
+    /**
+     * Adds up to limit + 1 of the patient's journal notes that match the
+     * query, newest first.
+     *
+     * Records are appended as notes are created, so walking them from the
+     * newest one visits them in createdAt order and can stop once the page
+     * is full, apart from notes sharing the last one's createdAt, which may
+     * sort either way by id. Only the header fields are decoded to filter,
+     * and the content only for notes kept on a full page.
+     */
+    private void readJournalPage(NoteQuery query, List<PatientNote> notes, Set<String> ids) {
+        int found = 0;
+        LocalDateTime boundary = null;
+        for (long position : journal.getPositionsNewestFirst(query.getPatientId())) {
+            RawBsonDocument raw = journal.readRaw(position);
+            if (raw == null) {
+                // Reclaimed since the positions were taken; MongoDB has them
+                break;
+            }
+            PatientNote note = toNote(headersOf(raw));
+            if (boundary != null && note.getCreatedAt().isBefore(boundary)) {
+                break;
+            }
+            if (!matches(note, query) || !ids.add(note.getId())) {
+                continue;
+            }
+            if (!query.isHeadersOnly()) {
+                note = toNote(raw.decode(DOCUMENT_CODEC));
+            }
+            notes.add(note);
+            if (++found > query.getLimit()) {
+                boundary = note.getCreatedAt();
+            }
+        }
+    }
 
-        // Filter by patientId
-        Document query = new Document("patientId", patientId);
+    /**
+     * Notes saved locally that MongoDB does not have yet.
+     */
+    public long getPendingNoteCount() {
+        return journal != null ? journal.getUnreplicatedCount() : 0;
+    }
 
-        for (Document doc : collection.find(query)) {
-            PatientNote note = new PatientNote();
-            note.setId(doc.getString("_id"));
-            note.setPatientId(doc.getInteger("patientId"));
-            note.setCategory(doc.getString("category"));
+    private static Bson toFilter(NoteQuery query) {
+        List<Bson> filters = new ArrayList<>();
+        filters.add(Filters.eq("patientId", query.getPatientId()));
+        if (query.getCategory() != null) {
+            filters.add(Filters.eq("category", query.getCategory()));
+        }
+        if (query.getFromDate() != null) {
+            filters.add(Filters.gte("createdAt", toDate(query.getFromDate().atStartOfDay())));
+        }
+        if (query.getToDate() != null) {
+            filters.add(Filters.lt("createdAt", toDate(query.getToDate().plusDays(1).atStartOfDay())));
+        }
+        if (!query.isFirstPage()) {
+            Date after = toDate(query.getAfterCreatedAt());
+            filters.add(Filters.or(
+                    Filters.lt("createdAt", after),
+                    Filters.and(Filters.eq("createdAt", after), Filters.lt("_id", query.getAfterId()))));
+        }
+        return Filters.and(filters);
+    }
 
-            String dateStr = doc.getString("createdAt");
-            if (dateStr != null) {
-                note.setCreatedAt(java.time.LocalDateTime.parse(dateStr));
+    // The filter of toFilter, for notes read from the journal
+    private static boolean matches(PatientNote note, NoteQuery query) {
+        if (note.getPatientId() != query.getPatientId()) {
+            return false;
+        }
+        if (!query.isFirstPage()) {
+            int c = note.getCreatedAt().compareTo(query.getAfterCreatedAt());
+            if (c > 0 || (c == 0 && note.getId().compareTo(query.getAfterId()) >= 0)) {
+                return false;
             }
+        }
+        if (query.getCategory() != null && !query.getCategory().equals(note.getCategory())) {
+            return false;
+        }
+        LocalDate day = note.getCreatedAt().toLocalDate();
+        if (query.getFromDate() != null && day.isBefore(query.getFromDate())) {
+            return false;
+        }
+        return query.getToDate() == null || !day.isAfter(query.getToDate());
+    }
 
-            // Extract dynamic content
-            Document contentDoc = (Document) doc.get("content");
-            if (contentDoc != null) {
-                java.util.Map<String, String> contentMap = new java.util.HashMap<>();
-                for (String key : contentDoc.keySet()) {
-                    contentMap.put(key, contentDoc.getString(key));
-                }
-                note.setContent(contentMap);
+    // The fields toNote reads apart from the content
+    private static Document headersOf(RawBsonDocument raw) {
+        Document doc = new Document("_id", raw.getString("_id").getValue())
+                .append("patientId", raw.getInt32("patientId").intValue());
+        BsonValue category = raw.get("category");
+        if (category != null && category.isString()) {
+            doc.append("category", category.asString().getValue());
+        }
+        BsonValue createdAt = raw.get("createdAt");
+        if (createdAt != null && createdAt.isDateTime()) {
+            doc.append("createdAt", new Date(createdAt.asDateTime().getValue()));
+        } else if (createdAt != null && createdAt.isString()) {
+            doc.append("createdAt", createdAt.asString().getValue());
+        }
+        return doc;
+    }
+
+    private static Document toDocument(PatientNote note) {
+        Document doc = new Document("_id", note.getId())
+                .append("patientId", note.getPatientId())
+                .append("category", note.getCategory())
+                .append("createdAt", toDate(note.getCreatedAt()));
+
+        // Add dynamic content
+        if (note.getContent() != null) {
+            doc.append("content", new Document(new HashMap<>(note.getContent())));
+        }
+        return doc;
+    }
+
+    private static PatientNote toNote(Document doc) {
+        PatientNote note = new PatientNote();
+        note.setId(doc.getString("_id"));
+        note.setPatientId(doc.getInteger("patientId"));
+        note.setCategory(doc.getString("category"));
+
+        // Notes not yet migrated still hold an ISO string
+        Object createdAt = doc.get("createdAt");
+        if (createdAt instanceof Date) {
+            note.setCreatedAt(LocalDateTime.ofInstant(((Date) createdAt).toInstant(), ZoneId.systemDefault()));
+        } else if (createdAt instanceof String) {
+            note.setCreatedAt(LocalDateTime.parse((String) createdAt));
+        }
+
+        // Absent when only headers were requested
+        Document contentDoc = doc.get("content", Document.class);
+        if (contentDoc != null) {
+            Map<String, String> contentMap = new HashMap<>(contentDoc.size() * 2);
+            for (Map.Entry<String, Object> entry : contentDoc.entrySet()) {
+                contentMap.put(entry.getKey(), entry.getValue() != null ? entry.getValue().toString() : null);
             }
-            notes.add(note);
+            note.setContent(contentMap);
+        } else {
+            note.setContent(null);
         }
-        return notes;
+        return note;
+    }
+
+    private static Date toDate(LocalDateTime dateTime) {
+        return Date.from(dateTime.atZone(ZoneId.systemDefault()).toInstant());
     }
 }
@@ -0,0 +1,601 @@
+package com.hospital.dao;
+
+import org.bson.BsonBinaryReader;
+import org.bson.BsonBinaryWriter;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.DocumentCodec;
+import org.bson.codecs.EncoderContext;
+import org.bson.io.BasicOutputBuffer;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only local log of documents, split into memory-mapped segment
+ * files of a fixed size.
+ *
+ * Each record is [length][crc32][patientId][BSON document]. A zero length
+ * marks the end of the written part of a segment and -1 a full segment. On
+ * open the segments are scanned to rebuild the patientId to record index,
+ * stopping at the first torn or corrupt record. Reads decode straight from
+ * the mapped segments.
+ *
+ * The journal also keeps a replication checkpoint: the position up to which
+ * records have been copied elsewhere (MongoDB), persisted in a small file so
+ * copying resumes where it stopped after a restart. Replicated records stay
+ * readable here, so a terminal keeps its recent history while the copy is
+ * unreachable. Once the segments take up more than maxRetainedBytes, the
+ * oldest wholly replicated ones are unmapped and deleted, with their index
+ * entries. Records not yet replicated are never deleted; they are bounded
+ * in total size instead, and appends are refused once the copy falls that
+ * far behind.
+ */
+public class NoteJournal {
+
+    private static final int HEADER_BYTES = 12;
+    // Length written where a full segment ends and the next one takes over
+    private static final int SEGMENT_END = -1;
+    private static final String SEGMENT_PREFIX = "notes-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String CHECKPOINT_FILE = "replicated.checkpoint";
+    // Held exclusively while the journal is open
+    private static final String LOCK_FILE = "journal.lock";
+
+    private static final DocumentCodec CODEC = new DocumentCodec();
+
+    // Directories of the journals open in this process
+    private static final Set<Path> OPEN_DIRS = ConcurrentHashMap.newKeySet();
+
+    // Unsafe.invokeCleaner, the only way to unmap a buffer before it is
+    // collected; null if the JDK does not offer it or denies the reflective
+    // access, in which case buffers are left to the garbage collector
+    private static final Object UNSAFE;
+    private static final Method INVOKE_CLEANER;
+
+    static {
+        Object unsafe = null;
+        Method invokeCleaner = null;
+        try {
+            Class<?> type = Class.forName("sun.misc.Unsafe");
+            Field field = type.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            unsafe = field.get(null);
+            invokeCleaner = type.getMethod("invokeCleaner", ByteBuffer.class);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            unsafe = null;
+            invokeCleaner = null;
+        }
+        UNSAFE = unsafe;
+        INVOKE_CLEANER = invokeCleaner;
+    }
+
+    private final Path dir;
+    // Kept open, and reachable, for as long as the lock must be held
+    private final FileChannel lockChannel;
+    private final int segmentBytes;
+    private final long maxUnreplicatedBytes;
+    private final long maxRetainedBytes;
+    // Mapped segments from firstSegment on; earlier ones have been deleted
+    private final List<MappedByteBuffer> segments = new ArrayList<>();
+    // Record positions by patientId, in append order. A position is the
+    // segment number in the high and the offset in the low 32 bits.
+    private final Map<Integer, List<Long>> index = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Guarded by the write lock
+    private int firstSegment;
+    private long end;
+    private long checkpoint;
+    private long unreplicated;
+    private long unreplicatedBytes;
+    private int recordCount;
+
+    /**
+     * Opens the journal in the directory, creating it if needed.
+     *
+     * @param segmentBytes         size of each segment file; no document may
+     *                             be larger
+     * @param maxUnreplicatedBytes records after the replication checkpoint
+     *                             may take up this much before append()
+     *                             refuses new ones
+     * @param maxRetainedBytes     segments past this total size are deleted,
+     *                             oldest first, once wholly replicated
+     * @throws IOException if another process, or another journal in this
+     *                     one, already has the directory open
+     */
+    public NoteJournal(Path dir, int segmentBytes, long maxUnreplicatedBytes, long maxRetainedBytes)
+            throws IOException {
+        this.dir = dir;
+        this.segmentBytes = segmentBytes;
+        this.maxUnreplicatedBytes = maxUnreplicatedBytes;
+        this.maxRetainedBytes = maxRetainedBytes;
+        Files.createDirectories(dir);
+
+        // Two writers would append over each other in the same mapped
+        // segments. Journals in this process are refused before any channel
+        // is opened: closing one would release the lock held through another
+        // on the same file. The file lock, released when the process exits,
+        // keeps other processes out.
+        Path key = dir.toAbsolutePath().normalize();
+        if (!OPEN_DIRS.add(key)) {
+            throw new IOException("Note journal " + dir + " is already open");
+        }
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(dir.resolve(LOCK_FILE), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            FileLock dirLock;
+            try {
+                dirLock = channel.tryLock();
+            } catch (OverlappingFileLockException e) {
+                dirLock = null;
+            }
+            if (dirLock == null) {
+                throw new IOException("Note journal " + dir + " is already in use by another instance of the app");
+            }
+            open();
+        } catch (IOException | RuntimeException e) {
+            if (channel != null) {
+                channel.close();
+            }
+            OPEN_DIRS.remove(key);
+            throw e;
+        }
+        lockChannel = channel;
+    }
+
+    private void open() throws IOException {
+        checkpoint = readCheckpoint();
+        List<Path> files = segmentFiles();
+        if (files.isEmpty() && checkpoint != 0) {
+            // A checkpoint left from a removed log would skip new records
+            writeCheckpoint(0);
+            checkpoint = 0;
+        }
+        firstSegment = files.isEmpty() ? 0 : segmentNumber(files.get(0));
+        end = position(firstSegment, 0);
+        for (int i = 0; i < files.size(); i++) {
+            int segment = firstSegment + i;
+            segments.add(map(files.get(i)));
+            int offset = scan(segment);
+            end = position(segment, offset);
+            if (i < files.size() - 1 && segment(segment).getInt(offset) != SEGMENT_END) {
+                // A segment is closed with SEGMENT_END before the next one is
+                // started, so the rest of the log follows a torn record and
+                // cannot be trusted. Set aside, since appends will need those
+                // file names again.
+                System.err.println("⚠️ Note journal ends early in " + files.get(i) + "; setting later segments aside");
+                for (Path later : files.subList(i + 1, files.size())) {
+                    Files.move(later, later.resolveSibling(later.getFileName() + ".corrupt-"
+                            + System.currentTimeMillis()));
+                }
+                break;
+            }
+        }
+        if (segments.isEmpty()) {
+            segments.add(map(segmentPath(firstSegment)));
+        }
+        reclaimSegments();
+    }
+
+    /**
+     * Appends the document and makes it durable before returning.
+     *
+     * @return the position of the record
+     * @throws IllegalStateException if too much is still waiting to be
+     *                               replicated
+     */
+    public long append(int patientId, Document document) throws IOException {
+        byte[] bytes = encode(document);
+        int length = HEADER_BYTES + bytes.length;
+        if (length > segmentBytes - 4) {
+            throw new IllegalArgumentException("Note is too large for the journal: " + bytes.length + " bytes");
+        }
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+
+        lock.writeLock().lock();
+        try {
+            if (unreplicatedBytes + length > maxUnreplicatedBytes) {
+                throw new IllegalStateException("Too many notes are waiting to be saved; try again shortly");
+            }
+            int segment = segmentOf(end);
+            int offset = offsetOf(end);
+            // Room is always left for the end marker
+            if (offset + length > segmentBytes - 4) {
+                MappedByteBuffer full = segment(segment);
+                full.putInt(offset, SEGMENT_END);
+                full.force(offset, 4);
+                segment++;
+                offset = 0;
+                segments.add(map(segmentPath(segment)));
+            }
+
+            MappedByteBuffer buffer = segment(segment);
+            buffer.putInt(offset + 4, (int) crc.getValue());
+            buffer.putInt(offset + 8, patientId);
+            buffer.put(offset + HEADER_BYTES, bytes);
+            // Written last so that a torn record reads as the end of the log
+            buffer.putInt(offset, length);
+            buffer.force(offset, length);
+
+            long position = position(segment, offset);
+            index.computeIfAbsent(patientId, id -> new ArrayList<>()).add(position);
+            end = position(segment, offset + length);
+            unreplicated++;
+            unreplicatedBytes += length;
+            recordCount++;
+            return position;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Positions of the patient's records still in the journal, newest
+     * first, for reading with readRaw().
+     */
+    public long[] getPositionsNewestFirst(int patientId) {
+        lock.readLock().lock();
+        try {
+            List<Long> positions = index.get(patientId);
+            if (positions == null) {
+                return new long[0];
+            }
+            long[] newestFirst = new long[positions.size()];
+            for (int i = 0; i < newestFirst.length; i++) {
+                newestFirst[i] = positions.get(positions.size() - 1 - i);
+            }
+            return newestFirst;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The record at the position, undecoded: RawBsonDocument decodes a
+     * field only when it is read. Null if the record's segment has been
+     * deleted since the position was taken.
+     */
+    public RawBsonDocument readRaw(long position) {
+        lock.readLock().lock();
+        try {
+            if (segmentOf(position) < firstSegment) {
+                return null;
+            }
+            return new RawBsonDocument(readBytes(position));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Up to max records after the replication checkpoint, oldest first.
+     */
+    public List<Entry> readUnreplicated(int max) {
+        lock.readLock().lock();
+        try {
+            List<Entry> entries = new ArrayList<>();
+            long position = checkpoint;
+            while (entries.size() < max && position < end) {
+                int segment = segmentOf(position);
+                int offset = offsetOf(position);
+                int length = segment(segment).getInt(offset);
+                if (length == SEGMENT_END) {
+                    position = position(segment + 1, 0);
+                    continue;
+                }
+                long next = position(segment, offset + length);
+                entries.add(new Entry(read(position), next, length));
+                position = next;
+            }
+            return entries;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Moves the replication checkpoint past the given entries, which must be
+     * the oldest unreplicated ones.
+     */
+    public void markReplicated(List<Entry> entries) throws IOException {
+        if (entries.isEmpty()) {
+            return;
+        }
+        long position = entries.get(entries.size() - 1).next;
+        long bytes = 0;
+        for (Entry entry : entries) {
+            bytes += entry.length;
+        }
+        lock.writeLock().lock();
+        try {
+            writeCheckpoint(position);
+            checkpoint = position;
+            unreplicated -= entries.size();
+            unreplicatedBytes -= bytes;
+            reclaimSegments();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public long getUnreplicatedCount() {
+        lock.readLock().lock();
+        try {
+            return unreplicated;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long getUnreplicatedBytes() {
+        lock.readLock().lock();
+        try {
+            return unreplicatedBytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Records still in the journal, replicated or not.
+     */
+    public int getRecordCount() {
+        lock.readLock().lock();
+        try {
+            return recordCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Reads the records of a segment into the index and returns the offset
+     * just past the last valid one.
+     */
+    private int scan(int segment) {
+        MappedByteBuffer buffer = segment(segment);
+        byte[] bytes = new byte[0];
+        int offset = 0;
+        while (offset + HEADER_BYTES <= segmentBytes - 4) {
+            int length = buffer.getInt(offset);
+            if (length < HEADER_BYTES || offset + length > segmentBytes - 4) {
+                break;
+            }
+            int payload = length - HEADER_BYTES;
+            if (bytes.length < payload) {
+                bytes = new byte[payload];
+            }
+            buffer.get(offset + HEADER_BYTES, bytes, 0, payload);
+            CRC32 crc = new CRC32();
+            crc.update(bytes, 0, payload);
+            if ((int) crc.getValue() != buffer.getInt(offset + 4)) {
+                break;
+            }
+
+            long position = position(segment, offset);
+            index.computeIfAbsent(buffer.getInt(offset + 8), id -> new ArrayList<>()).add(position);
+            recordCount++;
+            if (position >= checkpoint) {
+                unreplicated++;
+                unreplicatedBytes += length;
+            }
+            offset += length;
+        }
+        return offset;
+    }
+
+    /**
+     * Unmaps and deletes the oldest segments while all segments together
+     * take up more than maxRetainedBytes, and drops their records from the
+     * index. Only segments before the checkpoint's are deleted, so neither
+     * unreplicated records nor the segment being appended to are lost.
+     */
+    private void reclaimSegments() {
+        int lastSegment = firstSegment + segments.size() - 1;
+        int keepFrom = firstSegment;
+        while (keepFrom < segmentOf(checkpoint)
+                && (long) (lastSegment - keepFrom + 1) * segmentBytes > maxRetainedBytes) {
+            keepFrom++;
+        }
+        if (keepFrom == firstSegment) {
+            return;
+        }
+        long cutoff = position(keepFrom, 0);
+        Iterator<List<Long>> lists = index.values().iterator();
+        while (lists.hasNext()) {
+            List<Long> positions = lists.next();
+            int dropped = 0;
+            while (dropped < positions.size() && positions.get(dropped) < cutoff) {
+                dropped++;
+            }
+            positions.subList(0, dropped).clear();
+            recordCount -= dropped;
+            if (positions.isEmpty()) {
+                lists.remove();
+            }
+        }
+
+        while (firstSegment < keepFrom) {
+            unmap(segments.remove(0));
+            Path file = segmentPath(firstSegment);
+            firstSegment++;
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                // Deleted on the next open instead
+                System.err.println("⚠️ Could not delete note journal segment " + file + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private MappedByteBuffer segment(int segment) {
+        return segments.get(segment - firstSegment);
+    }
+
+    private Document read(long position) {
+        try (BsonBinaryReader reader = new BsonBinaryReader(ByteBuffer.wrap(readBytes(position)))) {
+            return CODEC.decode(reader, DecoderContext.builder().build());
+        }
+    }
+
+    // Copied out, since the segment may be unmapped once the lock is released
+    private byte[] readBytes(long position) {
+        MappedByteBuffer buffer = segment(segmentOf(position));
+        int offset = offsetOf(position);
+        byte[] bytes = new byte[buffer.getInt(offset) - HEADER_BYTES];
+        buffer.get(offset + HEADER_BYTES, bytes);
+        return bytes;
+    }
+
+    private static byte[] encode(Document document) {
+        BasicOutputBuffer out = new BasicOutputBuffer();
+        try (BsonBinaryWriter writer = new BsonBinaryWriter(out)) {
+            CODEC.encode(writer, document, EncoderContext.builder().build());
+        }
+        return out.toByteArray();
+    }
+
+    private MappedByteBuffer map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            // The mapping stays valid after the channel is closed
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        }
+    }
+
+    /**
+     * The segment files in order, without gaps. A segment whose delete
+     * failed can be left before a gap; it is older than the replicated
+     * segments deleted after it, so it is replicated too and deleted now.
+     */
+    private List<Path> segmentFiles() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path file : stream) {
+                files.add(file);
+            }
+        }
+        // Zero-padded numbers sort by name
+        Collections.sort(files);
+        int start = 0;
+        for (int i = 1; i < files.size(); i++) {
+            if (segmentNumber(files.get(i)) != segmentNumber(files.get(i - 1)) + 1) {
+                start = i;
+            }
+        }
+        for (Path stale : files.subList(0, start)) {
+            if (segmentNumber(stale) >= segmentOf(checkpoint)) {
+                throw new IOException("Note journal segment missing before " + files.get(start));
+            }
+            Files.delete(stale);
+        }
+        files = new ArrayList<>(files.subList(start, files.size()));
+        if (!files.isEmpty() && segmentNumber(files.get(0)) > segmentOf(checkpoint)) {
+            throw new IOException("Note journal segment missing: " + segmentPath(segmentOf(checkpoint)));
+        }
+        return files;
+    }
+
+    private static int segmentNumber(Path file) {
+        String name = file.getFileName().toString();
+        return Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    /**
+     * Releases the mapping now rather than when the buffer is collected,
+     * which would keep a reclaimed segment's disk space in use until then.
+     * The buffer must not be read afterwards.
+     *
+     * Where Unsafe is unavailable or the call fails, nothing is unmapped:
+     * the segment's channel was already closed in map(), so the mapping is
+     * the only thing left and goes when the buffer is collected. The file
+     * is deleted either way (or, where the OS refuses while it is mapped,
+     * on the next open).
+     */
+    private static void unmap(MappedByteBuffer buffer) {
+        if (INVOKE_CLEANER == null) {
+            return;
+        }
+        try {
+            INVOKE_CLEANER.invoke(UNSAFE, buffer);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // Left to the garbage collector, as above
+        }
+    }
+
+    private Path segmentPath(int segment) {
+        return dir.resolve(String.format("%s%08d%s", SEGMENT_PREFIX, segment, SEGMENT_SUFFIX));
+    }
+
+    private long readCheckpoint() throws IOException {
+        Path file = dir.resolve(CHECKPOINT_FILE);
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        return ByteBuffer.wrap(Files.readAllBytes(file)).getLong();
+    }
+
+    private void writeCheckpoint(long position) throws IOException {
+        Path tmp = dir.resolve(CHECKPOINT_FILE + ".tmp");
+        Files.write(tmp, ByteBuffer.allocate(8).putLong(position).array(), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE, StandardOpenOption.SYNC);
+        Files.move(tmp, dir.resolve(CHECKPOINT_FILE), StandardCopyOption.ATOMIC_MOVE,
+                StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static long position(int segment, int offset) {
+        return ((long) segment << 32) | offset;
+    }
+
+    private static int segmentOf(long position) {
+        return (int) (position >>> 32);
+    }
+
+    private static int offsetOf(long position) {
+        return (int) position;
+    }
+
+    /**
+     * A record read for replication, with the position of the record after
+     * it.
+     */
+    public static class Entry {
+        private final Document document;
+        private final long next;
+        private final int length;
+
+        Entry(Document document, long next, int length) {
+            this.document = document;
+            this.next = next;
+            this.length = length;
+        }
+
+        public Document getDocument() {
+            return document;
+        }
+    }
+}
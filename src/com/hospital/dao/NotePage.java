@@ -0,0 +1,30 @@
+package com.hospital.dao;
+
+import com.hospital.model.PatientNote;
+
+import java.util.List;
+
+/**
+ * One page of notes returned by MongoNoteDAO.getNotes.
+ */
+public class NotePage {
+
+    private final List<PatientNote> notes;
+    private final boolean hasMore;
+
+    public NotePage(List<PatientNote> notes, boolean hasMore) {
+        this.notes = notes;
+        this.hasMore = hasMore;
+    }
+
+    public List<PatientNote> getNotes() {
+        return notes;
+    }
+
+    /**
+     * Whether older notes follow; fetch them with query.after(last note).
+     */
+    public boolean hasMore() {
+        return hasMore;
+    }
+}
@@ -0,0 +1,108 @@
+package com.hospital.dao;
+
+import com.hospital.model.PatientNote;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * One page of a patient's notes for MongoNoteDAO.getNotes, newest first.
+ * Category and date filters are optional; unset filters match everything.
+ * The next page is requested with after(last note of this page).
+ */
+public class NoteQuery {
+
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = PageRequest.MAX_PAGE_SIZE;
+
+    private final int patientId;
+    private String category;
+    private LocalDate fromDate;
+    private LocalDate toDate;
+    private int limit = DEFAULT_LIMIT;
+    private boolean headersOnly;
+    private LocalDateTime afterCreatedAt;
+    private String afterId;
+
+    public NoteQuery(int patientId) {
+        this.patientId = patientId;
+    }
+
+    public NoteQuery category(String category) {
+        this.category = category == null || category.isBlank() ? null : category;
+        return this;
+    }
+
+    /**
+     * Restricts to notes written on or after fromDate and on or before
+     * toDate. Either bound may be null.
+     */
+    public NoteQuery between(LocalDate fromDate, LocalDate toDate) {
+        this.fromDate = fromDate;
+        this.toDate = toDate;
+        return this;
+    }
+
+    public NoteQuery limit(int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+        this.limit = limit;
+        return this;
+    }
+
+    /**
+     * Leaves out the note content, for listings that only show category and
+     * date.
+     */
+    public NoteQuery headersOnly(boolean headersOnly) {
+        this.headersOnly = headersOnly;
+        return this;
+    }
+
+    /**
+     * Continues after the given note, normally the last one of the previous
+     * page.
+     */
+    public NoteQuery after(PatientNote last) {
+        this.afterCreatedAt = last.getCreatedAt();
+        this.afterId = last.getId();
+        return this;
+    }
+
+    public int getPatientId() {
+        return patientId;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public LocalDate getFromDate() {
+        return fromDate;
+    }
+
+    public LocalDate getToDate() {
+        return toDate;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public boolean isHeadersOnly() {
+        return headersOnly;
+    }
+
+    public LocalDateTime getAfterCreatedAt() {
+        return afterCreatedAt;
+    }
+
+    public String getAfterId() {
+        return afterId;
+    }
+
+    public boolean isFirstPage() {
+        return afterId == null;
+    }
+}
@@ -0,0 +1,231 @@
+package com.hospital.dao;
+
+import com.hospital.util.PerformanceLogger;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.InsertManyOptions;
+import org.bson.Document;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Copies the note journal to MongoDB in the background.
+ *
+ * A single writer thread takes up to batchSize records after the journal's
+ * replication checkpoint, stores them with one unordered insertMany and
+ * then moves the checkpoint past them. A failed batch is retried with
+ * exponential backoff until it succeeds, so notes written during an outage
+ * reach MongoDB once it is back, including after a restart.
+ *
+ * Documents need a unique _id: a retried batch that MongoDB partly stored
+ * already fails those documents with a duplicate key, which counts as
+ * stored. Documents MongoDB rejects for any other reason (validation, size)
+ * would be rejected again on every retry and hold up all later ones, so
+ * they are appended to a dead-letter file and passed over.
+ */
+public class NoteReplicator {
+
+    private static final int DUPLICATE_KEY = 11000;
+    private static final long IDLE_POLL_MS = 1000;
+
+    private final NoteJournal journal;
+    private final MongoCollection<Document> collection;
+    private final Path deadLetterFile;
+    private final int batchSize;
+    private final long retryBaseMs;
+    private final long retryMaxMs;
+
+    private final Object signal = new Object();
+    private final Thread writer;
+    private volatile boolean closed;
+    private volatile boolean online = true;
+
+    // Statistics
+    private final AtomicLong replicated = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong failedAttempts = new AtomicLong();
+    private final AtomicLong deadLettered = new AtomicLong();
+
+    /**
+     * @param deadLetterFile receives the documents MongoDB rejects, one JSON
+     *                       line each
+     * @param batchSize      most records sent in one insertMany
+     * @param retryBaseMs    delay before the first retry of a failed batch;
+     *                       doubled on each further failure up to retryMaxMs
+     */
+    public NoteReplicator(NoteJournal journal, MongoCollection<Document> collection, Path deadLetterFile,
+            int batchSize, long retryBaseMs, long retryMaxMs) {
+        this.journal = journal;
+        this.collection = collection;
+        this.deadLetterFile = deadLetterFile;
+        this.batchSize = batchSize;
+        this.retryBaseMs = retryBaseMs;
+        this.retryMaxMs = retryMaxMs;
+
+        long backlog = journal.getUnreplicatedCount();
+        if (backlog > 0) {
+            System.out.println("📤 " + backlog + " patient note(s) in the local journal still to send to MongoDB");
+        }
+
+        this.writer = new Thread(this::run, "mongo-note-replicator");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Tells the writer a record was appended, so it does not wait for its
+     * next poll.
+     */
+    public void wakeUp() {
+        synchronized (signal) {
+            signal.notifyAll();
+        }
+    }
+
+    /**
+     * False from a failed batch until the next successful one; readers can
+     * skip MongoDB meanwhile instead of waiting on it.
+     */
+    public boolean isOnline() {
+        return online;
+    }
+
+    public long getReplicatedCount() {
+        return replicated.get();
+    }
+
+    public long getBatchCount() {
+        return batches.get();
+    }
+
+    public long getFailedAttemptCount() {
+        return failedAttempts.get();
+    }
+
+    public long getDeadLetteredCount() {
+        return deadLettered.get();
+    }
+
+    /**
+     * Stops the writer. Records not yet sent stay after the checkpoint for
+     * the next start.
+     */
+    public void close() {
+        closed = true;
+        writer.interrupt();
+    }
+
+    private void run() {
+        long backoffMs = retryBaseMs;
+        while (!closed) {
+            try {
+                List<NoteJournal.Entry> batch = journal.readUnreplicated(batchSize);
+                if (batch.isEmpty()) {
+                    synchronized (signal) {
+                        if (journal.getUnreplicatedCount() == 0) {
+                            signal.wait(IDLE_POLL_MS);
+                        }
+                    }
+                    continue;
+                }
+                if (write(batch)) {
+                    online = true;
+                    backoffMs = retryBaseMs;
+                } else {
+                    online = false;
+                    failedAttempts.incrementAndGet();
+                    Thread.sleep(backoffMs);
+                    backoffMs = Math.min(backoffMs * 2, retryMaxMs);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Sends the batch and, once every document is stored or dead-lettered,
+     * moves the checkpoint past it.
+     */
+    private boolean write(List<NoteJournal.Entry> batch) {
+        long start = System.nanoTime();
+        List<Document> documents = new ArrayList<>(batch.size());
+        for (NoteJournal.Entry entry : batch) {
+            documents.add(entry.getDocument());
+        }
+
+        try {
+            collection.insertMany(documents, new InsertManyOptions().ordered(false));
+        } catch (MongoBulkWriteException e) {
+            if (e.getWriteConcernError() != null) {
+                // Nothing is known to be durable; send it all again
+                System.err.println("⚠️ Patient notes not acknowledged by MongoDB: " + e.getMessage());
+                return false;
+            }
+            List<BulkWriteError> rejected = new ArrayList<>();
+            for (BulkWriteError error : e.getWriteErrors()) {
+                if (error.getCode() != DUPLICATE_KEY) {
+                    rejected.add(error);
+                }
+            }
+            if (!rejected.isEmpty() && !deadLetter(documents, rejected)) {
+                return false;
+            }
+        } catch (RuntimeException e) {
+            System.err.println("⚠️ Failed to send patient notes to MongoDB, will retry: " + e.getMessage());
+            return false;
+        }
+
+        try {
+            journal.markReplicated(batch);
+        } catch (IOException e) {
+            // Sent again later and then ignored as duplicates
+            System.err.println("⚠️ Could not save the note replication checkpoint: " + e.getMessage());
+            return false;
+        }
+        replicated.addAndGet(batch.size());
+        batches.incrementAndGet();
+        PerformanceLogger.log("replicatePatientNotes (MongoDB)", start);
+        return true;
+    }
+
+    /**
+     * Appends the rejected documents, with the reason, to the dead-letter
+     * file and makes them durable there.
+     *
+     * @return false if they could not be written, so the batch is retried
+     */
+    private boolean deadLetter(List<Document> documents, List<BulkWriteError> rejected) {
+        StringBuilder lines = new StringBuilder();
+        for (BulkWriteError error : rejected) {
+            lines.append(new Document("rejectedAt", new Date())
+                    .append("code", error.getCode())
+                    .append("message", error.getMessage())
+                    .append("document", documents.get(error.getIndex()))
+                    .toJson())
+                    .append('\n');
+        }
+        try {
+            Files.write(deadLetterFile, lines.toString().getBytes(StandardCharsets.UTF_8), StandardOpenOption.CREATE,
+                    StandardOpenOption.APPEND, StandardOpenOption.WRITE, StandardOpenOption.SYNC);
+        } catch (IOException e) {
+            System.err.println("⚠️ Could not save rejected patient notes to " + deadLetterFile + ": "
+                    + e.getMessage());
+            return false;
+        }
+        deadLettered.addAndGet(rejected.size());
+        System.err.println("❌ " + rejected.size() + " patient note(s) rejected by MongoDB, moved to "
+                + deadLetterFile + ": " + rejected.get(0).getMessage());
+        return true;
+    }
+}
@@ -0,0 +1,55 @@
+package com.hospital.dao;
+
+import java.util.List;
+
+/**
+ * One page of results from a keyset paginated query.
+ */
+public class Page<T> {
+
+    private final List<T> items;
+    private final Cursor nextCursor;
+
+    public Page(List<T> items, Cursor nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * Position of the last row on this page, or null if this is the last
+     * page.
+     */
+    public Cursor getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    /**
+     * The sort value and id of a row. The id breaks ties between rows with
+     * the same sort value.
+     */
+    public static class Cursor {
+        private final Object sortValue;
+        private final int id;
+
+        public Cursor(Object sortValue, int id) {
+            this.sortValue = sortValue;
+            this.id = id;
+        }
+
+        public Object getSortValue() {
+            return sortValue;
+        }
+
+        public int getId() {
+            return id;
+        }
+    }
+}
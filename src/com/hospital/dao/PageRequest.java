@@ -0,0 +1,70 @@
+package com.hospital.dao;
+
+/**
+ * Describes one page of a keyset (seek-method) paginated query: how many
+ * rows to return, which column to sort by, and the position of the last row
+ * of the previous page.
+ *
+ * Sort keys are model property names (e.g. "lastName"); each DAO documents
+ * the keys it supports.
+ */
+public class PageRequest {
+
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    private final int pageSize;
+    private final String sortKey;
+    private final boolean descending;
+    private final Page.Cursor after;
+
+    private PageRequest(int pageSize, String sortKey, boolean descending, Page.Cursor after) {
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        this.pageSize = pageSize;
+        this.sortKey = sortKey;
+        this.descending = descending;
+        this.after = after;
+    }
+
+    /**
+     * First page sorted ascending by the given key.
+     */
+    public static PageRequest first(int pageSize, String sortKey) {
+        return new PageRequest(pageSize, sortKey, false, null);
+    }
+
+    /**
+     * First page sorted descending by the given key.
+     */
+    public static PageRequest firstDescending(int pageSize, String sortKey) {
+        return new PageRequest(pageSize, sortKey, true, null);
+    }
+
+    /**
+     * The request for the page following the given one, or null if it was
+     * the last page.
+     */
+    public PageRequest next(Page<?> page) {
+        if (!page.hasNext()) {
+            return null;
+        }
+        return new PageRequest(pageSize, sortKey, descending, page.getNextCursor());
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public String getSortKey() {
+        return sortKey;
+    }
+
+    public boolean isDescending() {
+        return descending;
+    }
+
+    public Page.Cursor getAfter() {
+        return after;
+    }
+}
@@ -2,14 +2,32 @@ package com.hospital.dao;
 
 import com.hospital.model.Patient;
 import com.hospital.util.DBUtil;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
 
+import java.nio.charset.StandardCharsets;
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 public class PatientDAO {
 
+    // Sort keys accepted by getPatientsPage
+    private static final Map<String, String> PAGE_SORT_COLUMNS = Map.of(
+            "id", "id",
+            "lastName", "last_name",
+            "firstName", "first_name");
+
+    // Rows written to COPY between progress callbacks
+    private static final int COPY_CHUNK_SIZE = 5000;
+
     public void addPatient(Patient patient) throws SQLException {
         String sql = "INSERT INTO patients (first_name, last_name, gender, birth_date, email, phone, address, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
         try (Connection conn = DBUtil.getConnection();
@@ -38,6 +56,118 @@ public class PatientDAO {
         }
     }
 
+    /**
+     * Bulk-inserts patients with PostgreSQL COPY instead of one INSERT per
+     * row. Rows are copied into a temporary staging table and merged into
+     * patients in a single statement; rows whose email already exists are
+     * skipped. Imported patients get their generated id set, skipped ones
+     * keep id 0. Runs as one transaction.
+     *
+     * @return number of patients actually inserted
+     */
+    public int bulkImportPatients(List<Patient> patients, ImportProgressListener listener) throws SQLException {
+        if (patients.isEmpty()) {
+            return 0;
+        }
+
+        try (Connection conn = DBUtil.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                // Reserve ids up front so each row can be matched to its patient
+                int[] reservedIds = new int[patients.size()];
+                String reserveSql = "SELECT nextval(pg_get_serial_sequence('patients', 'id')) " +
+                        "FROM generate_series(1, ?)";
+                try (PreparedStatement pstmt = conn.prepareStatement(reserveSql)) {
+                    pstmt.setInt(1, patients.size());
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        int i = 0;
+                        while (rs.next()) {
+                            reservedIds[i++] = rs.getInt(1);
+                        }
+                    }
+                }
+
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute("CREATE TEMP TABLE patients_import (LIKE patients) ON COMMIT DROP");
+                }
+
+                copyIntoStaging(conn, patients, reservedIds, listener);
+
+                Set<Integer> insertedIds = new HashSet<>();
+                String mergeSql = "INSERT INTO patients " +
+                        "(id, first_name, last_name, gender, birth_date, email, phone, address, created_at) " +
+                        "SELECT id, first_name, last_name, gender, birth_date, email, phone, address, created_at " +
+                        "FROM patients_import ORDER BY id " +
+                        "ON CONFLICT DO NOTHING RETURNING id";
+                try (Statement stmt = conn.createStatement();
+                        ResultSet rs = stmt.executeQuery(mergeSql)) {
+                    while (rs.next()) {
+                        insertedIds.add(rs.getInt(1));
+                    }
+                }
+
+                conn.commit();
+
+                for (int i = 0; i < patients.size(); i++) {
+                    patients.get(i).setId(insertedIds.contains(reservedIds[i]) ? reservedIds[i] : 0);
+                }
+                return insertedIds.size();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    private void copyIntoStaging(Connection conn, List<Patient> patients, int[] reservedIds,
+            ImportProgressListener listener) throws SQLException {
+        String copySql = "COPY patients_import " +
+                "(id, first_name, last_name, gender, birth_date, email, phone, address, created_at) " +
+                "FROM STDIN WITH (FORMAT csv)";
+        CopyIn copyIn = conn.unwrap(PGConnection.class).getCopyAPI().copyIn(copySql);
+        try {
+            StringBuilder chunk = new StringBuilder();
+            LocalDateTime now = LocalDateTime.now();
+            for (int i = 0; i < patients.size(); i++) {
+                Patient p = patients.get(i);
+                chunk.append(reservedIds[i]).append(',');
+                appendCsv(chunk, p.getFirstName()).append(',');
+                appendCsv(chunk, p.getLastName()).append(',');
+                appendCsv(chunk, p.getGender()).append(',');
+                appendCsv(chunk, p.getBirthDate() != null ? p.getBirthDate().toString() : null).append(',');
+                appendCsv(chunk, p.getEmail()).append(',');
+                appendCsv(chunk, p.getPhone()).append(',');
+                appendCsv(chunk, p.getAddress()).append(',');
+                appendCsv(chunk, Timestamp.valueOf(p.getCreatedAt() != null ? p.getCreatedAt() : now).toString())
+                        .append('\n');
+
+                if ((i + 1) % COPY_CHUNK_SIZE == 0 || i == patients.size() - 1) {
+                    byte[] bytes = chunk.toString().getBytes(StandardCharsets.UTF_8);
+                    copyIn.writeToCopy(bytes, 0, bytes.length);
+                    chunk.setLength(0);
+                    if (listener != null) {
+                        listener.onProgress(i + 1, patients.size());
+                    }
+                }
+            }
+            copyIn.endCopy();
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+    }
+
+    // Quoted CSV field; an unquoted empty field is read as NULL by COPY
+    private StringBuilder appendCsv(StringBuilder sb, String value) {
+        if (value == null) {
+            return sb;
+        }
+        return sb.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+
     public void updatePatient(Patient patient) throws SQLException {
         String sql = "UPDATE patients SET first_name=?, last_name=?, gender=?, birth_date=?, email=?, phone=?, address=? WHERE id=?";
         try (Connection conn = DBUtil.getConnection();
@@ -114,6 +244,14 @@ public class PatientDAO {
         return null;
     }
 
+    /**
+     * Loads the patients with the given ids in batched queries. Ids with no
+     * patient are left out of the result.
+     */
+    public List<Patient> getPatientsByIds(Collection<Integer> ids) throws SQLException {
+        return IdBatchQuery.fetch("SELECT * FROM patients WHERE id = ANY(?)", ids, this::mapResultSetToPatient);
+    }
+
     public List<Patient> getAllPatients() throws SQLException {
         List<Patient> patients = new ArrayList<>();
         String sql = "SELECT * FROM patients";
@@ -128,15 +266,70 @@ public class PatientDAO {
         return patients;
     }
 
-    public List<Patient> searchPatients(String keyword) throws SQLException {
+    /**
+     * Streams every patient through a server-side cursor. Close the stream
+     * (try-with-resources) to release its connection.
+     */
+    public Stream<Patient> streamAllPatients() throws SQLException {
+        return CursorQuery.stream("SELECT * FROM patients", this::mapResultSetToPatient);
+    }
+
+    /**
+     * Passes every patient to the action without buffering the full table.
+     */
+    public void forEachPatient(Consumer<? super Patient> action) throws SQLException {
+        CursorQuery.forEach("SELECT * FROM patients", this::mapResultSetToPatient, action);
+    }
+
+    /**
+     * Keyset-paginated patient listing.
+     * Supported sort keys: id, lastName, firstName
+     */
+    public Page<Patient> getPatientsPage(PageRequest request) throws SQLException {
+        return KeysetQuery.fetchPage("SELECT * FROM patients", "id", PAGE_SORT_COLUMNS, request,
+                this::mapResultSetToPatient, Patient::getId, p -> pageSortValue(p, request.getSortKey()));
+    }
+
+    private Object pageSortValue(Patient patient, String sortKey) {
+        switch (sortKey) {
+            case "lastName":
+                return patient.getLastName();
+            case "firstName":
+                return patient.getFirstName();
+            default:
+                return patient.getId();
+        }
+    }
+
+    /**
+     * Case-insensitive name search on the full name ("first last"), best
+     * match first: names with a word starting with the keyword, then names
+     * containing it, then names similar to it by pg_trgm word similarity
+     * ({@code <%}), for misspellings. Capped at limit. Both filters are
+     * served by the pg_trgm GIN index on the same expression.
+     */
+    public List<Patient> searchPatients(String keyword, int limit) throws SQLException {
         List<Patient> patients = new ArrayList<>();
-        String sql = "SELECT * FROM patients WHERE LOWER(first_name) LIKE ? OR LOWER(last_name) LIKE ?";
+        String sql = "SELECT * FROM patients"
+                + " WHERE LOWER(first_name || ' ' || last_name) LIKE ? ESCAPE '\\'"
+                + " OR ? <% LOWER(first_name || ' ' || last_name)"
+                + " ORDER BY CASE"
+                + " WHEN ' ' || LOWER(first_name || ' ' || last_name) LIKE ? ESCAPE '\\' THEN 0"
+                + " WHEN LOWER(first_name || ' ' || last_name) LIKE ? ESCAPE '\\' THEN 1"
+                + " ELSE 2 END,"
+                + " word_similarity(?, LOWER(first_name || ' ' || last_name)) DESC,"
+                + " last_name, first_name, id LIMIT ?";
         try (Connection conn = DBUtil.getConnection();
                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
-            String searchPattern = "%" + keyword.toLowerCase() + "%";
-            pstmt.setString(1, searchPattern);
-            pstmt.setString(2, searchPattern);
+            String term = keyword.trim().toLowerCase();
+            String contains = LikePatterns.contains(term);
+            pstmt.setString(1, contains);
+            pstmt.setString(2, term);
+            pstmt.setString(3, "% " + LikePatterns.escape(term) + "%");
+            pstmt.setString(4, contains);
+            pstmt.setString(5, term);
+            pstmt.setInt(6, limit);
 
             try (ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
@@ -6,10 +6,19 @@ import com.hospital.util.DBUtil;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 public class PrescriptionDAO {
 
+    private static final String ITEMS_BY_PRESCRIPTION_IDS_SQL = "SELECT pi.*, mi.item_name FROM prescription_items pi " +
+            "JOIN medical_inventory mi ON pi.inventory_id = mi.id " +
+            "WHERE pi.prescription_id = ANY(?) " +
+            "ORDER BY pi.prescription_id, pi.id";
+
     public void addPrescription(Prescription prescription) throws SQLException {
         String sql = "INSERT INTO prescriptions (patient_id, doctor_id, appointment_id, notes) VALUES (?, ?, ?, ?)";
         String itemSql = "INSERT INTO prescription_items (prescription_id, inventory_id, quantity, dosage_instructions) VALUES (?, ?, ?, ?)";
@@ -74,44 +83,58 @@ public class PrescriptionDAO {
             pstmt.setInt(1, patientId);
             try (ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
-                    Prescription p = new Prescription(
-                            rs.getInt("id"),
-                            rs.getInt("patient_id"),
-                            rs.getInt("doctor_id"),
-                            (Integer) rs.getObject("appointment_id"),
-                            rs.getString("notes"));
-                    p.setPrescriptionDate(rs.getTimestamp("prescription_date"));
-                    // Load items (could be done lazily, but eager is simpler here)
-                    p.setItems(getPrescriptionItems(p.getId(), conn));
-                    prescriptions.add(p);
+                    prescriptions.add(mapResultSetToPrescription(rs));
                 }
             }
+
+            // Items are loaded in bulk once the header cursor is closed
+            loadItems(prescriptions, conn);
         }
         return prescriptions;
     }
 
-    private List<PrescriptionItem> getPrescriptionItems(int prescriptionId, Connection conn) throws SQLException {
-        List<PrescriptionItem> items = new ArrayList<>();
-        String sql = "SELECT pi.*, mi.item_name FROM prescription_items pi " +
-                "JOIN medical_inventory mi ON pi.inventory_id = mi.id " +
-                "WHERE pi.prescription_id = ?";
+    /**
+     * Fills in the items of every given prescription using one query per
+     * IdBatchQuery.BATCH_SIZE prescriptions instead of one query per
+     * prescription.
+     */
+    private void loadItems(List<Prescription> prescriptions, Connection conn) throws SQLException {
+        if (prescriptions.isEmpty()) {
+            return;
+        }
 
-        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setInt(1, prescriptionId);
-            try (ResultSet rs = pstmt.executeQuery()) {
-                while (rs.next()) {
-                    PrescriptionItem item = new PrescriptionItem(
-                            rs.getInt("id"),
-                            rs.getInt("prescription_id"),
-                            rs.getInt("inventory_id"),
-                            rs.getInt("quantity"),
-                            rs.getString("dosage_instructions"));
-                    item.setMedicineName(rs.getString("item_name"));
-                    items.add(item);
-                }
-            }
+        Map<Integer, Prescription> byId = new HashMap<>();
+        for (Prescription p : prescriptions) {
+            p.setItems(new ArrayList<>());
+            byId.put(p.getId(), p);
+        }
+
+        for (PrescriptionItem item : IdBatchQuery.fetch(conn, ITEMS_BY_PRESCRIPTION_IDS_SQL, byId.keySet(),
+                this::mapResultSetToItem)) {
+            byId.get(item.getPrescriptionId()).getItems().add(item);
         }
-        return items;
+    }
+
+    private Prescription mapResultSetToPrescription(ResultSet rs) throws SQLException {
+        Prescription p = new Prescription(
+                rs.getInt("id"),
+                rs.getInt("patient_id"),
+                rs.getInt("doctor_id"),
+                (Integer) rs.getObject("appointment_id"),
+                rs.getString("notes"));
+        p.setPrescriptionDate(rs.getTimestamp("prescription_date"));
+        return p;
+    }
+
+    private PrescriptionItem mapResultSetToItem(ResultSet rs) throws SQLException {
+        PrescriptionItem item = new PrescriptionItem(
+                rs.getInt("id"),
+                rs.getInt("prescription_id"),
+                rs.getInt("inventory_id"),
+                rs.getInt("quantity"),
+                rs.getString("dosage_instructions"));
+        item.setMedicineName(rs.getString("item_name"));
+        return item;
     }
 
     public List<Prescription> getAllPrescriptions() throws SQLException {
@@ -123,19 +146,31 @@ public class PrescriptionDAO {
                 ResultSet rs = pstmt.executeQuery()) {
 
             while (rs.next()) {
-                Prescription p = new Prescription(
-                        rs.getInt("id"),
-                        rs.getInt("patient_id"),
-                        rs.getInt("doctor_id"),
-                        (Integer) rs.getObject("appointment_id"),
-                        rs.getString("notes"));
-                p.setPrescriptionDate(rs.getTimestamp("prescription_date"));
-                prescriptions.add(p);
+                prescriptions.add(mapResultSetToPrescription(rs));
             }
         }
         return prescriptions;
     }
 
+    /**
+     * Streams every prescription header (without items) through a
+     * server-side cursor. Close the stream (try-with-resources) to release
+     * its connection.
+     */
+    public Stream<Prescription> streamAllPrescriptions() throws SQLException {
+        return CursorQuery.stream("SELECT * FROM prescriptions ORDER BY prescription_date DESC",
+                this::mapResultSetToPrescription);
+    }
+
+    /**
+     * Passes every prescription header (without items) to the action without
+     * buffering the full table.
+     */
+    public void forEachPrescription(Consumer<? super Prescription> action) throws SQLException {
+        CursorQuery.forEach("SELECT * FROM prescriptions ORDER BY prescription_date DESC",
+                this::mapResultSetToPrescription, action);
+    }
+
     public void updatePrescription(Prescription prescription) throws SQLException {
         String sql = "UPDATE prescriptions SET patient_id=?, doctor_id=?, notes=? WHERE id=?";
         try (Connection conn = DBUtil.getConnection();
@@ -178,25 +213,83 @@ public class PrescriptionDAO {
         List<Prescription> prescriptions = new ArrayList<>();
         String sql = "SELECT * FROM prescriptions ORDER BY prescription_date DESC";
 
-        try (Connection conn = DBUtil.getConnection();
-                PreparedStatement pstmt = conn.prepareStatement(sql);
-                ResultSet rs = pstmt.executeQuery()) {
+        try (Connection conn = DBUtil.getConnection()) {
+            try (PreparedStatement pstmt = conn.prepareStatement(sql);
+                    ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    prescriptions.add(mapResultSetToPrescription(rs));
+                }
+            }
 
-            while (rs.next()) {
-                Prescription p = new Prescription(
-                        rs.getInt("id"),
-                        rs.getInt("patient_id"),
-                        rs.getInt("doctor_id"),
-                        (Integer) rs.getObject("appointment_id"),
-                        rs.getString("notes"));
-                p.setPrescriptionDate(rs.getTimestamp("prescription_date"));
-                p.setItems(getPrescriptionItems(p.getId(), conn));
-                prescriptions.add(p);
+            loadItems(prescriptions, conn);
+        }
+        return prescriptions;
+    }
+
+    /**
+     * Prescriptions written by the doctor, newest first, with their items.
+     */
+    public List<Prescription> getPrescriptionsByDoctorId(int doctorId) throws SQLException {
+        List<Prescription> prescriptions = new ArrayList<>();
+        String sql = "SELECT * FROM prescriptions WHERE doctor_id = ? ORDER BY prescription_date DESC";
+
+        try (Connection conn = DBUtil.getConnection()) {
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setInt(1, doctorId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        prescriptions.add(mapResultSetToPrescription(rs));
+                    }
+                }
             }
+
+            loadItems(prescriptions, conn);
         }
         return prescriptions;
     }
 
+    /**
+     * Loads one prescription with its items in a single query, or returns
+     * null if it does not exist.
+     */
+    public Prescription getPrescriptionWithItems(int id) throws SQLException {
+        // One row per item; the LEFT JOIN keeps a prescription without items
+        // as a single row with null item columns
+        String sql = "SELECT p.*, pi.id AS item_id, pi.inventory_id, pi.quantity, pi.dosage_instructions, " +
+                "mi.item_name " +
+                "FROM prescriptions p " +
+                "LEFT JOIN prescription_items pi ON pi.prescription_id = p.id " +
+                "LEFT JOIN medical_inventory mi ON pi.inventory_id = mi.id " +
+                "WHERE p.id = ? " +
+                "ORDER BY pi.id";
+        try (Connection conn = DBUtil.getConnection();
+                PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, id);
+            Prescription prescription = null;
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    if (prescription == null) {
+                        prescription = mapResultSetToPrescription(rs);
+                        prescription.setItems(new ArrayList<>());
+                    }
+                    int itemId = rs.getInt("item_id");
+                    if (rs.wasNull()) {
+                        continue;
+                    }
+                    PrescriptionItem item = new PrescriptionItem(
+                            itemId,
+                            prescription.getId(),
+                            rs.getInt("inventory_id"),
+                            rs.getInt("quantity"),
+                            rs.getString("dosage_instructions"));
+                    item.setMedicineName(rs.getString("item_name"));
+                    prescription.getItems().add(item);
+                }
+            }
+            return prescription;
+        }
+    }
+
     public void updatePrescriptionWithItems(Prescription prescription) throws SQLException {
         String updateSql = "UPDATE prescriptions SET patient_id=?, doctor_id=?, notes=? WHERE id=?";
         String deleteItemsSql = "DELETE FROM prescription_items WHERE prescription_id=?";
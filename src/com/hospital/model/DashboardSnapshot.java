@@ -0,0 +1,64 @@
+package com.hospital.model;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Every figure shown on the dashboard, read together at one point in time.
+ */
+public class DashboardSnapshot {
+    private final int patientCount;
+    private final int doctorCount;
+    private final int appointmentCount;
+    private final int departmentCount;
+    private final Map<String, Integer> patientsPerDay;
+    private final Map<String, Integer> doctorsPerDepartment;
+    private final LocalDateTime loadedAt;
+
+    public DashboardSnapshot(int patientCount, int doctorCount, int appointmentCount, int departmentCount,
+            Map<String, Integer> patientsPerDay, Map<String, Integer> doctorsPerDepartment) {
+        this.patientCount = patientCount;
+        this.doctorCount = doctorCount;
+        this.appointmentCount = appointmentCount;
+        this.departmentCount = departmentCount;
+        this.patientsPerDay = Collections.unmodifiableMap(patientsPerDay);
+        this.doctorsPerDepartment = Collections.unmodifiableMap(doctorsPerDepartment);
+        this.loadedAt = LocalDateTime.now();
+    }
+
+    public int getPatientCount() {
+        return patientCount;
+    }
+
+    public int getDoctorCount() {
+        return doctorCount;
+    }
+
+    public int getAppointmentCount() {
+        return appointmentCount;
+    }
+
+    public int getDepartmentCount() {
+        return departmentCount;
+    }
+
+    /**
+     * Patients registered per day of week, Mon to Sun, including zero days.
+     */
+    public Map<String, Integer> getPatientsPerDay() {
+        return patientsPerDay;
+    }
+
+    /**
+     * Doctors per department, largest first; departments without doctors are
+     * left out.
+     */
+    public Map<String, Integer> getDoctorsPerDepartment() {
+        return doctorsPerDepartment;
+    }
+
+    public LocalDateTime getLoadedAt() {
+        return loadedAt;
+    }
+}
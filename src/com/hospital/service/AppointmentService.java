@@ -1,69 +1,165 @@
 package com.hospital.service;
 
 import com.hospital.dao.AppointmentDAO;
+import com.hospital.dao.AppointmentSearchCriteria;
+import com.hospital.dao.Page;
+import com.hospital.dao.PageRequest;
 import com.hospital.model.Appointment;
 import com.hospital.util.PerformanceLogger;
 
+import com.hospital.util.IncrementalCounts;
+
 import java.sql.SQLException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 public class AppointmentService {
 
+    private static final String[] DAY_NAMES = { "Mon", "Tue", "Wed", "Thu", "Fri", "Sat", "Sun" };
+
     private final AppointmentDAO appointmentDAO;
+    // All-time appointments per weekday, kept in step with writes
+    private final IncrementalCounts<DayOfWeek> perDayCounts;
+    private final List<WriteListener> writeListeners = new CopyOnWriteArrayList<>();
 
     public AppointmentService() {
         this.appointmentDAO = new AppointmentDAO();
+        this.perDayCounts = new IncrementalCounts<>(
+                () -> appointmentDAO.countAppointmentsPerDayOfWeek(null, null));
+    }
+
+    /**
+     * Registers a listener told after each appointment write made through this
+     * service.
+     */
+    public void addWriteListener(WriteListener listener) {
+        writeListeners.add(listener);
     }
 
     public void scheduleAppointment(Appointment appointment) throws SQLException {
-        long start = System.currentTimeMillis();
+        long start = System.nanoTime();
+        long version = perDayCounts.version();
         appointmentDAO.addAppointment(appointment);
+        perDayCounts.adjust(version, appointment.getAppointmentDate().getDayOfWeek(), 1);
+        notifyWrite(WriteListener.Change.ADDED, appointment.getId());
         PerformanceLogger.log("scheduleAppointment", start);
     }
 
     public List<Appointment> getAllAppointments() throws SQLException {
-        long start = System.currentTimeMillis();
+        long start = System.nanoTime();
         List<Appointment> appointments = appointmentDAO.getAllAppointments();
         PerformanceLogger.log("getAllAppointments", start);
         return appointments;
     }
 
+    public Page<Appointment> getAppointmentsPage(PageRequest request) throws SQLException {
+        long start = System.nanoTime();
+        Page<Appointment> page = appointmentDAO.getAppointmentsPage(request);
+        PerformanceLogger.log("getAppointmentsPage", start);
+        return page;
+    }
+
+    public List<Appointment> searchAppointments(AppointmentSearchCriteria criteria) throws SQLException {
+        long start = System.nanoTime();
+        List<Appointment> appointments = appointmentDAO.searchAppointments(criteria);
+        PerformanceLogger.log("searchAppointments", start);
+        return appointments;
+    }
+
+    /**
+     * Streams all appointments without buffering them. Must be closed by the
+     * caller.
+     */
+    public Stream<Appointment> streamAllAppointments() throws SQLException {
+        return appointmentDAO.streamAllAppointments();
+    }
+
+    public void forEachAppointment(Consumer<? super Appointment> action) throws SQLException {
+        long start = System.nanoTime();
+        appointmentDAO.forEachAppointment(action);
+        PerformanceLogger.log("forEachAppointment (Cursor)", start);
+    }
+
     public void updateAppointment(Appointment appointment) throws SQLException {
-        long start = System.currentTimeMillis();
+        long start = System.nanoTime();
+        long version = perDayCounts.version();
+        Appointment before = perDayCounts.isLoaded() ? appointmentDAO.getAppointmentById(appointment.getId()) : null;
         appointmentDAO.updateAppointment(appointment);
+
+        Map<DayOfWeek, Integer> deltas = new HashMap<>();
+        if (before != null) {
+            deltas.merge(before.getAppointmentDate().getDayOfWeek(), -1, Integer::sum);
+            deltas.merge(appointment.getAppointmentDate().getDayOfWeek(), 1, Integer::sum);
+        }
+        perDayCounts.adjust(version, deltas);
+        notifyWrite(WriteListener.Change.UPDATED, appointment.getId());
         PerformanceLogger.log("updateAppointment", start);
     }
 
     public void cancelAppointment(int id) throws SQLException {
-        long start = System.currentTimeMillis();
+        long start = System.nanoTime();
+        long version = perDayCounts.version();
+        Appointment before = perDayCounts.isLoaded() ? appointmentDAO.getAppointmentById(id) : null;
         appointmentDAO.deleteAppointment(id);
+        perDayCounts.adjust(version, before != null
+                ? Map.of(before.getAppointmentDate().getDayOfWeek(), -1)
+                : Map.of());
+        notifyWrite(WriteListener.Change.DELETED, id);
         PerformanceLogger.log("cancelAppointment", start);
     }
 
+    private void notifyWrite(WriteListener.Change change, int id) {
+        for (WriteListener listener : writeListeners) {
+            listener.onWrite(change, id);
+        }
+    }
+
+    /**
+     * Drops the per-weekday counts after appointments were deleted outside
+     * this service, e.g. along with their patient or doctor.
+     */
+    public void invalidateCounts() {
+        perDayCounts.invalidate();
+    }
+
     public int getAppointmentCount() throws SQLException {
         return appointmentDAO.getAppointmentCount();
     }
 
+    /**
+     * All-time appointments per weekday ("Mon" to "Sun"). Counted by the
+     * database on first use, then adjusted as appointments are scheduled,
+     * moved or cancelled through this service.
+     */
     public Map<String, Integer> getAppointmentsPerDay() throws SQLException {
-        long start = System.currentTimeMillis();
-        List<Appointment> all = appointmentDAO.getAllAppointments();
-        Map<String, Integer> stats = new HashMap<>();
+        long start = System.nanoTime();
+        Map<String, Integer> stats = toDayNames(perDayCounts.get());
+        PerformanceLogger.log("getAppointmentsPerDay", start);
+        return stats;
+    }
 
-        // Initialize days
-        String[] days = { "Mon", "Tue", "Wed", "Thu", "Fri", "Sat", "Sun" };
-        for (String day : days)
-            stats.put(day, 0);
+    /**
+     * Appointments per weekday between two dates, counted by the database.
+     * Either bound may be null; toDate is inclusive.
+     */
+    public Map<String, Integer> getAppointmentsPerDay(LocalDate fromDate, LocalDate toDate) throws SQLException {
+        long start = System.nanoTime();
+        Map<String, Integer> stats = toDayNames(appointmentDAO.countAppointmentsPerDayOfWeek(fromDate, toDate));
+        PerformanceLogger.log("getAppointmentsPerDay (Range)", start);
+        return stats;
+    }
 
-        // Simple aggregation based on DayOfWeek
-        for (Appointment a : all) {
-            String day = a.getAppointmentDate().getDayOfWeek().name(); // MONDAY...
-            String shortDay = day.substring(0, 1).toUpperCase() + day.substring(1, 3).toLowerCase(); // Mon
-            stats.put(shortDay, stats.getOrDefault(shortDay, 0) + 1);
+    private static Map<String, Integer> toDayNames(Map<DayOfWeek, Integer> counts) {
+        Map<String, Integer> stats = new HashMap<>();
+        for (DayOfWeek dow : DayOfWeek.values()) {
+            stats.put(DAY_NAMES[dow.ordinal()], counts.getOrDefault(dow, 0));
         }
-
-        PerformanceLogger.log("getAppointmentsPerDay", start);
         return stats;
     }
 }
@@ -0,0 +1,67 @@
+package com.hospital.service;
+
+import com.hospital.dao.DashboardDAO;
+import com.hospital.model.DashboardSnapshot;
+import com.hospital.util.EnvUtil;
+import com.hospital.util.PerformanceLogger;
+
+import java.sql.SQLException;
+
+/**
+ * Serves the dashboard figures from one query and keeps the result for
+ * DASHBOARD_CACHE_TTL_MS (default 30 s), so that everyone opening the
+ * dashboard in that window shares the same snapshot. ServiceRegistry drops
+ * it earlier whenever a patient, doctor, appointment or department is
+ * written.
+ */
+public class DashboardService {
+
+    private final DashboardDAO dashboardDAO;
+    private final long ttlNanos;
+    private volatile CachedSnapshot cached;
+
+    public DashboardService() {
+        this.dashboardDAO = new DashboardDAO();
+        this.ttlNanos = EnvUtil.getLong("DASHBOARD_CACHE_TTL_MS", 30_000) * 1_000_000L;
+    }
+
+    /**
+     * Returns the cached snapshot while it is fresh, otherwise loads a new
+     * one. Concurrent callers wait for a single load.
+     */
+    public DashboardSnapshot getSnapshot() throws SQLException {
+        long start = System.nanoTime();
+        CachedSnapshot current = cached;
+        if (current != null && start - current.loadedAt < ttlNanos) {
+            PerformanceLogger.log("getDashboardSnapshot (Cached)", start);
+            return current.snapshot;
+        }
+
+        synchronized (this) {
+            current = cached;
+            if (current == null || System.nanoTime() - current.loadedAt >= ttlNanos) {
+                current = new CachedSnapshot(dashboardDAO.getSnapshot(), System.nanoTime());
+                cached = current;
+            }
+        }
+        PerformanceLogger.log("getDashboardSnapshot", start);
+        return current.snapshot;
+    }
+
+    /**
+     * Drops the cached snapshot so the next call reloads it.
+     */
+    public void invalidate() {
+        cached = null;
+    }
+
+    private static class CachedSnapshot {
+        private final DashboardSnapshot snapshot;
+        private final long loadedAt;
+
+        CachedSnapshot(DashboardSnapshot snapshot, long loadedAt) {
+            this.snapshot = snapshot;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
@@ -6,51 +6,70 @@ import com.hospital.util.PerformanceLogger;
 
 import java.sql.SQLException;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class DepartmentService {
 
     private final DepartmentDAO departmentDAO;
+    private final List<WriteListener> writeListeners = new CopyOnWriteArrayList<>();
 
     public DepartmentService() {
         this.departmentDAO = new DepartmentDAO();
     }
 
+    /**
+     * Registers a listener told after each department write made through this
+     * service.
+     */
+    public void addWriteListener(WriteListener listener) {
+        writeListeners.add(listener);
+    }
+
     public List<Department> getAllDepartments() throws SQLException {
-        long start = System.currentTimeMillis();
+        long start = System.nanoTime();
         List<Department> departments = departmentDAO.getAllDepartments();
         PerformanceLogger.log("getAllDepartments", start);
         return departments;
     }
 
     public Department getDepartmentById(int id) throws SQLException {
-        long start = System.currentTimeMillis();
+        long start = System.nanoTime();
         Department department = departmentDAO.getDepartmentById(id);
         PerformanceLogger.log("getDepartmentById", start);
         return department;
     }
 
     public Department getDepartmentByName(String name) throws SQLException {
-        long start = System.currentTimeMillis();
+        long start = System.nanoTime();
         Department department = departmentDAO.getDepartmentByName(name);
         PerformanceLogger.log("getDepartmentByName", start);
         return department;
     }
 
     public void addDepartment(Department department) throws SQLException {
-        long start = System.currentTimeMillis();
+        long start = System.nanoTime();
         departmentDAO.addDepartment(department);
+        notifyWrite(WriteListener.Change.ADDED, department.getId());
         PerformanceLogger.log("addDepartment", start);
     }
 
     public void updateDepartment(Department department) throws SQLException {
-        long start = System.currentTimeMillis();
+        long start = System.nanoTime();
         departmentDAO.updateDepartment(department);
+        notifyWrite(WriteListener.Change.UPDATED, department.getId());
         PerformanceLogger.log("updateDepartment", start);
     }
 
     public void deleteDepartment(int id) throws SQLException {
-        long start = System.currentTimeMillis();
+        long start = System.nanoTime();
         departmentDAO.deleteDepartment(id);
+        notifyWrite(WriteListener.Change.DELETED, id);
         PerformanceLogger.log("deleteDepartment", start);
     }
+
+    private void notifyWrite(WriteListener.Change change, int id) {
+        for (WriteListener listener : writeListeners) {
+            listener.onWrite(change, id);
+        }
+    }
 }
@@ -2,99 +2,171 @@ package com.hospital.service;
 
 import com.hospital.dao.DoctorDAO;
 import com.hospital.model.Doctor;
+import com.hospital.util.EntityCache;
+import com.hospital.util.IncrementalCounts;
 import com.hospital.util.PerformanceLogger;
 
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class DoctorService {
 
     private final DoctorDAO doctorDAO;
-    private Map<Integer, Doctor> doctorCache = new HashMap<>();
+    private final EntityCache<Integer, Doctor> doctorCache = EntityCache.fromEnv("doctors");
+    // Doctors per specialization, kept in step with writes
+    private final IncrementalCounts<String> specializationCounts;
+    private final List<WriteListener> writeListeners = new CopyOnWriteArrayList<>();
 
     public DoctorService() {
         this.doctorDAO = new DoctorDAO();
+        this.specializationCounts = new IncrementalCounts<>(doctorDAO::countDoctorsBySpecialization);
+    }
+
+    /**
+     * Registers a listener told after each doctor write made through this
+     * service.
+     */
+    public void addWriteListener(WriteListener listener) {
+        writeListeners.add(listener);
     }
 
     public void registerDoctor(Doctor doctor) throws SQLException {
-        long start = System.currentTimeMillis();
+        long start = System.nanoTime();
+        long version = specializationCounts.version();
         doctorDAO.addDoctor(doctor);
+        specializationCounts.adjust(version, specializationOf(doctor), 1);
         doctorCache.put(doctor.getId(), doctor);
+        notifyWrite(WriteListener.Change.ADDED, doctor.getId());
         PerformanceLogger.log("registerDoctor", start);
     }
 
     public List<Doctor> getAllDoctors() throws SQLException {
-        long start = System.currentTimeMillis();
+        long start = System.nanoTime();
         List<Doctor> doctors = doctorDAO.getAllDoctors();
-        doctorCache.clear();
-        for (Doctor d : doctors) {
-            doctorCache.put(d.getId(), d);
-        }
+        doctorCache.putAll(doctors, Doctor::getId);
         PerformanceLogger.log("getAllDoctors", start);
         return doctors;
     }
 
     public Doctor getDoctorById(int id) throws SQLException {
-        if (doctorCache.containsKey(id)) {
-            return doctorCache.get(id);
-        }
-        long start = System.currentTimeMillis();
+        return doctorCache.get(id, this::loadDoctor);
+    }
+
+    private Doctor loadDoctor(int id) throws SQLException {
+        long start = System.nanoTime();
         Doctor doctor = doctorDAO.getDoctorById(id);
-        if (doctor != null) {
-            doctorCache.put(id, doctor);
-        }
         PerformanceLogger.log("getDoctorById", start);
         return doctor;
     }
 
+    /**
+     * Looks up many doctors at once. Cached doctors are served from the cache
+     * and the rest are loaded with batched queries. Ids with no doctor are
+     * absent from the returned map.
+     */
+    public Map<Integer, Doctor> getDoctorsByIds(Collection<Integer> ids) throws SQLException {
+        long start = System.nanoTime();
+        Map<Integer, Doctor> found = new HashMap<>();
+        List<Integer> missing = new ArrayList<>();
+        for (Integer id : new HashSet<>(ids)) {
+            Doctor cached = doctorCache.getIfPresent(id);
+            if (cached != null) {
+                found.put(id, cached);
+            } else {
+                missing.add(id);
+            }
+        }
+        if (!missing.isEmpty()) {
+            List<Doctor> loaded = doctorDAO.getDoctorsByIds(missing);
+            doctorCache.putAll(loaded, Doctor::getId);
+            for (Doctor d : loaded) {
+                found.put(d.getId(), d);
+            }
+        }
+        PerformanceLogger.log("getDoctorsByIds", start);
+        return found;
+    }
+
     public void updateDoctor(Doctor doctor) throws SQLException {
-        long start = System.currentTimeMillis();
+        long start = System.nanoTime();
+        long version = specializationCounts.version();
+        // Read from the database: the cached instance may be the one being
+        // edited
+        Doctor before = specializationCounts.isLoaded() ? doctorDAO.getDoctorById(doctor.getId()) : null;
         doctorDAO.updateDoctor(doctor);
+
+        Map<String, Integer> deltas = new HashMap<>();
+        if (before != null) {
+            deltas.merge(specializationOf(before), -1, Integer::sum);
+            deltas.merge(specializationOf(doctor), 1, Integer::sum);
+        }
+        specializationCounts.adjust(version, deltas);
         doctorCache.put(doctor.getId(), doctor);
+        notifyWrite(WriteListener.Change.UPDATED, doctor.getId());
         PerformanceLogger.log("updateDoctor", start);
     }
 
     public void deleteDoctor(int id) throws SQLException {
-        long start = System.currentTimeMillis();
+        long start = System.nanoTime();
+        long version = specializationCounts.version();
+        Doctor before = specializationCounts.isLoaded() ? doctorDAO.getDoctorById(id) : null;
         doctorDAO.deleteDoctor(id);
-        doctorCache.remove(id);
+        specializationCounts.adjust(version, before != null ? Map.of(specializationOf(before), -1) : Map.of());
+        doctorCache.invalidate(id);
+        // Its appointments and prescriptions went with it
+        notifyWrite(WriteListener.Change.DELETED, id);
         PerformanceLogger.log("deleteDoctor", start);
     }
 
+    private void notifyWrite(WriteListener.Change change, int id) {
+        for (WriteListener listener : writeListeners) {
+            listener.onWrite(change, id);
+        }
+    }
+
     public Doctor getDoctorByName(String firstName, String lastName) throws SQLException {
-        long start = System.currentTimeMillis();
+        long start = System.nanoTime();
         Doctor doctor = doctorDAO.getDoctorByName(firstName, lastName);
         PerformanceLogger.log("getDoctorByName", start);
         return doctor;
     }
 
+    public EntityCache.CacheStats getCacheStats() {
+        return doctorCache.getStats();
+    }
+
     // Stats
     public int getDoctorCount() throws SQLException {
         return doctorDAO.getDoctorCount();
     }
 
     public Map<String, Integer> getDoctorsPerDepartment() throws SQLException {
-        long start = System.currentTimeMillis();
+        long start = System.nanoTime();
         Map<String, Integer> stats = doctorDAO.getDoctorsPerDepartment();
         PerformanceLogger.log("getDoctorsPerDepartment", start);
         return stats;
     }
 
+    /**
+     * Doctors per specialization ("Unknown" for none). Counted by the
+     * database on first use, then adjusted as doctors are added, edited or
+     * removed through this service.
+     */
     public Map<String, Integer> getDoctorSpecializationStats() throws SQLException {
-        long start = System.currentTimeMillis();
-        List<Doctor> all = doctorDAO.getAllDoctors();
-        Map<String, Integer> stats = new HashMap<>();
-
-        for (Doctor d : all) {
-            String spec = d.getSpecialization();
-            if (spec == null || spec.isEmpty())
-                spec = "Unknown";
-            stats.put(spec, stats.getOrDefault(spec, 0) + 1);
-        }
-
+        long start = System.nanoTime();
+        Map<String, Integer> stats = specializationCounts.get();
         PerformanceLogger.log("getDoctorSpecializationStats", start);
         return stats;
     }
+
+    private static String specializationOf(Doctor doctor) {
+        String spec = doctor.getSpecialization();
+        return spec == null || spec.isEmpty() ? "Unknown" : spec;
+    }
 }
@@ -1,10 +1,14 @@
 package com.hospital.service;
 
 import com.hospital.dao.FeedbackDAO;
+import com.hospital.dao.Page;
+import com.hospital.dao.PageRequest;
 import com.hospital.model.PatientFeedback;
 import com.hospital.util.PerformanceLogger;
+import com.hospital.util.SessionManager;
 
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
 
 public class FeedbackService {
@@ -16,15 +20,45 @@ public class FeedbackService {
     }
 
     public void submitFeedback(PatientFeedback feedback) throws SQLException {
-        long start = System.currentTimeMillis();
+        long start = System.nanoTime();
         feedbackDAO.addFeedback(feedback);
         PerformanceLogger.log("submitFeedback", start);
     }
 
     public List<PatientFeedback> getAllFeedback() throws SQLException {
-        long start = System.currentTimeMillis();
+        long start = System.nanoTime();
         List<PatientFeedback> list = feedbackDAO.getAllFeedback();
         PerformanceLogger.log("getAllFeedback", start);
         return list;
     }
+
+    /**
+     * The feedback the logged-in user may see: a patient's own, feedback
+     * from a doctor's patients, or all of it for anyone else.
+     */
+    public List<PatientFeedback> getVisibleFeedback() throws SQLException {
+        if (!SessionManager.isDoctor() && !SessionManager.isPatient()) {
+            return getAllFeedback();
+        }
+        long start = System.nanoTime();
+        Integer referenceId = SessionManager.getReferenceId();
+        List<PatientFeedback> list;
+        if (referenceId == null) {
+            // Account not linked to a doctor or patient record
+            list = new ArrayList<>();
+        } else if (SessionManager.isDoctor()) {
+            list = feedbackDAO.getFeedbackForDoctor(referenceId);
+        } else {
+            list = feedbackDAO.getFeedbackByPatientId(referenceId);
+        }
+        PerformanceLogger.log("getVisibleFeedback", start);
+        return list;
+    }
+
+    public Page<PatientFeedback> getFeedbackPage(PageRequest request) throws SQLException {
+        long start = System.nanoTime();
+        Page<PatientFeedback> page = feedbackDAO.getFeedbackPage(request);
+        PerformanceLogger.log("getFeedbackPage", start);
+        return page;
+    }
 }
@@ -1,52 +1,62 @@
 package com.hospital.service;
 
 import com.hospital.dao.InventoryDAO;
+import com.hospital.dao.Page;
+import com.hospital.dao.PageRequest;
 import com.hospital.model.MedicalInventory;
+import com.hospital.util.EntityCache;
 import com.hospital.util.PerformanceLogger;
 
 import java.sql.SQLException;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 public class InventoryService {
 
     private final InventoryDAO inventoryDAO;
-    private Map<Integer, MedicalInventory> inventoryCache = new HashMap<>();
+    private final EntityCache<Integer, MedicalInventory> inventoryCache = EntityCache.fromEnv("inventory");
 
     public InventoryService() {
         this.inventoryDAO = new InventoryDAO();
     }
 
     public void addInventoryItem(MedicalInventory item) throws SQLException {
-        long start = System.currentTimeMillis();
+        long start = System.nanoTime();
         inventoryDAO.addItem(item);
         inventoryCache.put(item.getId(), item);
         PerformanceLogger.log("addInventoryItem", start);
     }
 
     public List<MedicalInventory> getAllInventoryItems() throws SQLException {
-        long start = System.currentTimeMillis();
+        long start = System.nanoTime();
         List<MedicalInventory> items = inventoryDAO.getAllItems();
-        inventoryCache.clear();
-        for (MedicalInventory item : items) {
-            inventoryCache.put(item.getId(), item);
-        }
+        inventoryCache.putAll(items, MedicalInventory::getId);
         PerformanceLogger.log("getAllInventoryItems", start);
         return items;
     }
 
+    public Page<MedicalInventory> getInventoryPage(PageRequest request) throws SQLException {
+        long start = System.nanoTime();
+        Page<MedicalInventory> page = inventoryDAO.getItemsPage(request);
+        inventoryCache.putAll(page.getItems(), MedicalInventory::getId);
+        PerformanceLogger.log("getInventoryPage", start);
+        return page;
+    }
+
     public void updateInventoryItem(MedicalInventory item) throws SQLException {
-        long start = System.currentTimeMillis();
+        long start = System.nanoTime();
         inventoryDAO.updateItem(item);
         inventoryCache.put(item.getId(), item);
         PerformanceLogger.log("updateInventoryItem", start);
     }
 
     public void deleteInventoryItem(int id) throws SQLException {
-        long start = System.currentTimeMillis();
+        long start = System.nanoTime();
         inventoryDAO.deleteItem(id);
-        inventoryCache.remove(id);
+        inventoryCache.invalidate(id);
         PerformanceLogger.log("deleteInventoryItem", start);
     }
+
+    public EntityCache.CacheStats getCacheStats() {
+        return inventoryCache.getStats();
+    }
 }
@@ -0,0 +1,44 @@
+package com.hospital.service;
+
+import com.hospital.model.Patient;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk patient import.
+ */
+public class PatientImportResult {
+
+    private final List<Patient> imported;
+    private final int duplicatesSkipped;
+    private final List<String> rejected;
+
+    public PatientImportResult(List<Patient> imported, int duplicatesSkipped, List<String> rejected) {
+        this.imported = imported;
+        this.duplicatesSkipped = duplicatesSkipped;
+        this.rejected = rejected;
+    }
+
+    /**
+     * Patients inserted, with their generated ids set.
+     */
+    public List<Patient> getImported() {
+        return imported;
+    }
+
+    /**
+     * Valid rows skipped because a patient with the same email already
+     * exists.
+     */
+    public int getDuplicatesSkipped() {
+        return duplicatesSkipped;
+    }
+
+    /**
+     * One message per row that failed validation, e.g. "Row 12: Invalid
+     * email". Row numbers are 1-based positions in the input list.
+     */
+    public List<String> getRejected() {
+        return rejected;
+    }
+}
@@ -1,94 +1,236 @@
 package com.hospital.service;
 
+import com.hospital.dao.ImportProgressListener;
+import com.hospital.dao.Page;
+import com.hospital.dao.PageRequest;
 import com.hospital.dao.PatientDAO;
 import com.hospital.dao.MongoNoteDAO;
+import com.hospital.dao.NotePage;
+import com.hospital.dao.NoteQuery;
 import com.hospital.model.Patient;
 import com.hospital.model.PatientNote;
+import com.hospital.util.EntityCache;
 import com.hospital.util.PerformanceLogger;
+import com.hospital.util.TrigramIndex;
+import com.hospital.util.ValidationUtil;
 
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 public class PatientService {
 
+    // Maximum number of patients a name search returns
+    public static final int SEARCH_LIMIT = 200;
+
     private final PatientDAO patientDAO;
     private final MongoNoteDAO mongoNoteDAO;
-    private Map<Integer, Patient> patientCache = new HashMap<>();
+    private final EntityCache<Integer, Patient> patientCache = EntityCache.fromEnv("patients");
+    // Names of the cached patients; follows every cache write and removal
+    private final TrigramIndex<Integer> nameIndex = new TrigramIndex<>();
+    private final List<WriteListener> writeListeners = new CopyOnWriteArrayList<>();
 
     public PatientService() {
         this.patientDAO = new PatientDAO();
         this.mongoNoteDAO = new MongoNoteDAO();
+        patientCache.setListener(new EntityCache.Listener<>() {
+            @Override
+            public void onWrite(Integer id, Patient patient) {
+                nameIndex.put(id, patient.getFirstName() + " " + patient.getLastName());
+            }
+
+            @Override
+            public void onRemoval(Integer id) {
+                nameIndex.remove(id);
+            }
+        });
+    }
+
+    /**
+     * Registers a listener told after each patient write made through this
+     * service.
+     */
+    public void addWriteListener(WriteListener listener) {
+        writeListeners.add(listener);
     }
 
     // Patient CRUD
     public void registerPatient(Patient patient) throws SQLException {
-        long start = System.currentTimeMillis();
+        long start = System.nanoTime();
         patientDAO.addPatient(patient);
         patientCache.put(patient.getId(), patient);
+        notifyWrite(WriteListener.Change.ADDED, patient.getId());
         PerformanceLogger.log("registerPatient", start);
     }
 
+    /**
+     * Imports many patients at once through PostgreSQL COPY. Rows failing
+     * ValidationUtil checks are rejected up front; rows whose email already
+     * exists are skipped. Imported patients are added to the cache.
+     */
+    public PatientImportResult importPatients(List<Patient> patients, ImportProgressListener listener)
+            throws SQLException {
+        long start = System.nanoTime();
+
+        List<Patient> valid = new ArrayList<>();
+        List<String> rejected = new ArrayList<>();
+        for (int i = 0; i < patients.size(); i++) {
+            List<String> errors = ValidationUtil.validatePatient(patients.get(i));
+            if (errors.isEmpty()) {
+                valid.add(patients.get(i));
+            } else {
+                rejected.add("Row " + (i + 1) + ": " + String.join(", ", errors));
+            }
+        }
+
+        patientDAO.bulkImportPatients(valid, listener);
+
+        List<Patient> imported = new ArrayList<>();
+        for (Patient p : valid) {
+            if (p.getId() > 0) {
+                imported.add(p);
+                patientCache.put(p.getId(), p);
+                notifyWrite(WriteListener.Change.ADDED, p.getId());
+            }
+        }
+
+        PerformanceLogger.log("importPatients (COPY)", start);
+        return new PatientImportResult(imported, valid.size() - imported.size(), rejected);
+    }
+
     public List<Patient> getAllPatients() throws SQLException {
-        long start = System.currentTimeMillis();
+        long start = System.nanoTime();
         List<Patient> patients = patientDAO.getAllPatients();
-        patientCache.clear();
-        for (Patient p : patients) {
-            patientCache.put(p.getId(), p);
-        }
+        patientCache.putAll(patients, Patient::getId);
         PerformanceLogger.log("getAllPatients (DB Scan)", start);
         return patients;
     }
 
+    /**
+     * Streams all patients without loading the table into memory or the
+     * cache. Must be closed by the caller.
+     */
+    public Stream<Patient> streamAllPatients() throws SQLException {
+        return patientDAO.streamAllPatients();
+    }
+
+    public void forEachPatient(Consumer<? super Patient> action) throws SQLException {
+        long start = System.nanoTime();
+        patientDAO.forEachPatient(action);
+        PerformanceLogger.log("forEachPatient (Cursor)", start);
+    }
+
+    public Page<Patient> getPatientsPage(PageRequest request) throws SQLException {
+        long start = System.nanoTime();
+        Page<Patient> page = patientDAO.getPatientsPage(request);
+        patientCache.putAll(page.getItems(), Patient::getId);
+        PerformanceLogger.log("getPatientsPage", start);
+        return page;
+    }
+
     public Patient getPatientById(int id) throws SQLException {
-        if (patientCache.containsKey(id)) {
-            return patientCache.get(id);
-        }
-        long start = System.currentTimeMillis();
+        return patientCache.get(id, this::loadPatient);
+    }
+
+    private Patient loadPatient(int id) throws SQLException {
+        long start = System.nanoTime();
         Patient patient = patientDAO.getPatientById(id);
-        if (patient != null) {
-            patientCache.put(id, patient);
-        }
         PerformanceLogger.log("getPatientById", start);
         return patient;
     }
 
+    /**
+     * Looks up many patients at once. Cached patients are served from the
+     * cache and the rest are loaded with batched queries. Ids with no patient
+     * are absent from the returned map.
+     */
+    public Map<Integer, Patient> getPatientsByIds(Collection<Integer> ids) throws SQLException {
+        long start = System.nanoTime();
+        Map<Integer, Patient> found = new HashMap<>();
+        List<Integer> missing = new ArrayList<>();
+        for (Integer id : new HashSet<>(ids)) {
+            Patient cached = patientCache.getIfPresent(id);
+            if (cached != null) {
+                found.put(id, cached);
+            } else {
+                missing.add(id);
+            }
+        }
+        if (!missing.isEmpty()) {
+            List<Patient> loaded = patientDAO.getPatientsByIds(missing);
+            patientCache.putAll(loaded, Patient::getId);
+            for (Patient p : loaded) {
+                found.put(p.getId(), p);
+            }
+        }
+        PerformanceLogger.log("getPatientsByIds", start);
+        return found;
+    }
+
     public void updatePatient(Patient patient) throws SQLException {
-        long start = System.currentTimeMillis();
+        long start = System.nanoTime();
         patientDAO.updatePatient(patient);
         patientCache.put(patient.getId(), patient);
+        notifyWrite(WriteListener.Change.UPDATED, patient.getId());
         PerformanceLogger.log("updatePatient", start);
     }
 
     public void deletePatient(int id) throws SQLException {
-        long start = System.currentTimeMillis();
+        long start = System.nanoTime();
         patientDAO.deletePatient(id);
-        patientCache.remove(id);
+        patientCache.invalidate(id);
+        // Its appointments, prescriptions and feedback went with it
+        notifyWrite(WriteListener.Change.DELETED, id);
         PerformanceLogger.log("deletePatient", start);
     }
 
+    private void notifyWrite(WriteListener.Change change, int id) {
+        for (WriteListener listener : writeListeners) {
+            listener.onWrite(change, id);
+        }
+    }
+
     // Searching and Sorting
+
+    /**
+     * Name search over all patients, best match first and capped at
+     * SEARCH_LIMIT.
+     */
     public List<Patient> searchPatients(String keyword) throws SQLException {
-        long start = System.currentTimeMillis();
-        List<Patient> results = patientDAO.searchPatients(keyword);
+        long start = System.nanoTime();
+        List<Patient> results = patientDAO.searchPatients(keyword, SEARCH_LIMIT);
         PerformanceLogger.log("searchPatients", start);
         return results;
     }
 
+    /**
+     * Fuzzy name search over the cached patients, best match first: names
+     * with a word starting with the keyword, then names containing it, then
+     * close misspellings. Only sees the patients currently in the cache,
+     * which is bounded and evicts; searchPatients covers the whole table.
+     */
     public List<Patient> searchPatientsFromCache(String keyword) {
-        long start = System.currentTimeMillis();
-        String lowerKeyword = keyword.toLowerCase();
-        List<Patient> results = patientCache.values().stream()
-                .filter(p -> p.getFirstName().toLowerCase().contains(lowerKeyword) ||
-                        p.getLastName().toLowerCase().contains(lowerKeyword))
-                .toList();
+        long start = System.nanoTime();
+        List<Patient> results = new ArrayList<>();
+        for (Integer id : nameIndex.search(keyword, SEARCH_LIMIT)) {
+            Patient patient = patientCache.getIfPresent(id);
+            if (patient != null) {
+                results.add(patient);
+            }
+        }
         PerformanceLogger.log("searchPatientsFromCache", start);
         return results;
     }
 
     public void sortPatientsByName(List<Patient> patients) {
-        long start = System.currentTimeMillis();
+        long start = System.nanoTime();
         patients.sort((p1, p2) -> {
             int res = p1.getLastName().compareToIgnoreCase(p2.getLastName());
             if (res == 0) {
@@ -99,29 +241,45 @@ public class PatientService {
         PerformanceLogger.log("sortPatientsByName (In-Memory)", start);
     }
 
+    public EntityCache.CacheStats getCacheStats() {
+        return patientCache.getStats();
+    }
+
     // Stats
     public int getPatientCount() throws SQLException {
         return patientDAO.getPatientCount();
     }
 
     public Map<String, Integer> getPatientsPerDayOfWeek() throws SQLException {
-        long start = System.currentTimeMillis();
+        long start = System.nanoTime();
         Map<String, Integer> stats = patientDAO.getPatientsPerDayOfWeek();
         PerformanceLogger.log("getPatientsPerDayOfWeek", start);
         return stats;
     }
 
     // NoSQL Notes
+
+    /**
+     * Saves the note locally and returns; it reaches MongoDB in the
+     * background.
+     */
     public void addPatientNote(PatientNote note) {
-        long start = System.currentTimeMillis();
+        long start = System.nanoTime();
         mongoNoteDAO.addNote(note);
-        PerformanceLogger.log("addPatientNote (MongoDB)", start);
+        PerformanceLogger.log("addPatientNote (Journal)", start);
     }
 
-    public List<PatientNote> getPatientNotes(int patientId) {
-        long start = System.currentTimeMillis();
-        List<PatientNote> notes = mongoNoteDAO.getNotesByPatientId(patientId);
+    /**
+     * One page of a patient's notes, newest first.
+     */
+    public NotePage getPatientNotes(NoteQuery query) {
+        long start = System.nanoTime();
+        NotePage page = mongoNoteDAO.getNotes(query);
         PerformanceLogger.log("getPatientNotes (MongoDB)", start);
-        return notes;
+        return page;
+    }
+
+    public long getPendingNoteCount() {
+        return mongoNoteDAO.getPendingNoteCount();
     }
 }
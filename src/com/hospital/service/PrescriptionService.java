@@ -1,62 +1,373 @@
 package com.hospital.service;
 
 import com.hospital.dao.PrescriptionDAO;
+import com.hospital.model.Doctor;
+import com.hospital.model.Patient;
 import com.hospital.model.Prescription;
+import com.hospital.model.PrescriptionItem;
 import com.hospital.util.PerformanceLogger;
+import com.hospital.util.SessionManager;
+import com.hospital.util.TokenIndex;
 
 import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 public class PrescriptionService {
 
+    private static final Comparator<Prescription> NEWEST_FIRST = Comparator
+            .comparing(Prescription::getPrescriptionDate, Comparator.nullsLast(Comparator.<Timestamp>reverseOrder()))
+            .thenComparing(Comparator.comparingInt(Prescription::getId).reversed());
+
     private final PrescriptionDAO prescriptionDAO;
+    private final PatientService patientService;
+    private final DoctorService doctorService;
+
+    // Built by the first full load with items and kept in step with every
+    // write made through this service; replaced wholesale on the next full
+    // load, and dropped when patients or doctors change. Guarded by
+    // indexLock for writes.
+    private final Object indexLock = new Object();
+    private volatile ItemSearchIndex searchIndex;
+    // The signed-in doctor's or patient's own prescriptions, indexed by
+    // their first search; dropped on every write and at sign-out. Guarded
+    // by indexLock for writes.
+    private volatile ScopedIndex scopedIndex;
 
-    public PrescriptionService() {
+    /**
+     * @param patientService resolves the patient names indexed for search
+     * @param doctorService  resolves the doctor names indexed for search
+     */
+    public PrescriptionService(PatientService patientService, DoctorService doctorService) {
         this.prescriptionDAO = new PrescriptionDAO();
+        this.patientService = patientService;
+        this.doctorService = doctorService;
     }
 
     public void prescribeMedication(Prescription prescription) throws SQLException {
-        long start = System.currentTimeMillis();
+        long start = System.nanoTime();
         prescriptionDAO.addPrescription(prescription);
+        reindex(prescription.getId());
         PerformanceLogger.log("prescribeMedication", start);
     }
 
     public List<Prescription> getPatientPrescriptions(int patientId) throws SQLException {
-        long start = System.currentTimeMillis();
+        long start = System.nanoTime();
         List<Prescription> list = prescriptionDAO.getPrescriptionsByPatientId(patientId);
         PerformanceLogger.log("getPatientPrescriptions", start);
         return list;
     }
 
+    /**
+     * One prescription with its items, or null if it does not exist.
+     */
+    public Prescription getPrescriptionWithItems(int id) throws SQLException {
+        long start = System.nanoTime();
+        Prescription prescription = prescriptionDAO.getPrescriptionWithItems(id);
+        PerformanceLogger.log("getPrescriptionWithItems", start);
+        return prescription;
+    }
+
     public List<Prescription> getAllPrescriptions() throws SQLException {
-        long start = System.currentTimeMillis();
+        long start = System.nanoTime();
         List<Prescription> list = prescriptionDAO.getAllPrescriptions();
         PerformanceLogger.log("getAllPrescriptions", start);
         return list;
     }
 
+    /**
+     * Streams all prescription headers without buffering them. Must be
+     * closed by the caller.
+     */
+    public Stream<Prescription> streamAllPrescriptions() throws SQLException {
+        return prescriptionDAO.streamAllPrescriptions();
+    }
+
+    public void forEachPrescription(Consumer<? super Prescription> action) throws SQLException {
+        long start = System.nanoTime();
+        prescriptionDAO.forEachPrescription(action);
+        PerformanceLogger.log("forEachPrescription (Cursor)", start);
+    }
+
     public void updatePrescription(Prescription prescription) throws SQLException {
-        long start = System.currentTimeMillis();
+        long start = System.nanoTime();
         prescriptionDAO.updatePrescription(prescription);
+        reindex(prescription.getId());
         PerformanceLogger.log("updatePrescription", start);
     }
 
     public void deletePrescription(int id) throws SQLException {
-        long start = System.currentTimeMillis();
+        long start = System.nanoTime();
         prescriptionDAO.deletePrescription(id);
+        synchronized (indexLock) {
+            scopedIndex = null;
+            if (searchIndex != null) {
+                searchIndex.remove(id);
+            }
+        }
         PerformanceLogger.log("deletePrescription", start);
     }
 
+    /**
+     * Loads every prescription with its items and rebuilds the search index
+     * from them.
+     */
     public List<Prescription> getAllPrescriptionsWithItems() throws SQLException {
-        long start = System.currentTimeMillis();
-        List<Prescription> list = prescriptionDAO.getAllPrescriptionsWithItems();
+        long start = System.nanoTime();
+        List<Prescription> list = new ArrayList<>();
+        rebuildSearchIndex(list);
         PerformanceLogger.log("getAllPrescriptionsWithItems", start);
         return list;
     }
 
+    /**
+     * Loads every prescription with its items into loaded and installs a
+     * search index built from them.
+     *
+     * @return the index built, which stays usable even if it is invalidated
+     *         or replaced right after
+     */
+    private ItemSearchIndex rebuildSearchIndex(List<Prescription> loaded) throws SQLException {
+        synchronized (indexLock) {
+            // Loaded under the lock so that no write lands between the load
+            // and the index swap
+            loaded.addAll(prescriptionDAO.getAllPrescriptionsWithItems());
+            ItemSearchIndex index = buildIndex(loaded);
+            searchIndex = index;
+            return index;
+        }
+    }
+
     public void updatePrescriptionWithItems(Prescription prescription) throws SQLException {
-        long start = System.currentTimeMillis();
+        long start = System.nanoTime();
         prescriptionDAO.updatePrescriptionWithItems(prescription);
+        reindex(prescription.getId());
         PerformanceLogger.log("updatePrescriptionWithItems", start);
     }
+
+    /**
+     * Finds the prescription items whose patient name, doctor name, medicine
+     * or dosage instructions have a word starting with each word of the
+     * keyword. Every returned prescription holds only its matching items;
+     * newest first. Loads all prescriptions on first use to build the index.
+     */
+    public List<Prescription> searchPrescriptions(String keyword) throws SQLException {
+        long start = System.nanoTime();
+        ItemSearchIndex index = searchIndex;
+        if (index == null) {
+            index = rebuildSearchIndex(new ArrayList<>());
+        }
+        List<Prescription> results = search(index, keyword);
+        PerformanceLogger.log("searchPrescriptions (Index)", start);
+        return results;
+    }
+
+    /**
+     * The prescriptions the logged-in user may see, with items: a doctor's
+     * own, a patient's own, or all of them for anyone else.
+     */
+    public List<Prescription> getVisiblePrescriptions() throws SQLException {
+        if (!SessionManager.isDoctor() && !SessionManager.isPatient()) {
+            return getAllPrescriptionsWithItems();
+        }
+        long start = System.nanoTime();
+        List<Prescription> list = loadScoped();
+        PerformanceLogger.log("getVisiblePrescriptions", start);
+        return list;
+    }
+
+    /**
+     * searchPrescriptions limited to what the logged-in user may see.
+     * Doctors and patients search over an index of their own prescriptions
+     * only, so the shared index over every prescription is never built for
+     * them.
+     */
+    public List<Prescription> searchVisiblePrescriptions(String keyword) throws SQLException {
+        if (!SessionManager.isDoctor() && !SessionManager.isPatient()) {
+            return searchPrescriptions(keyword);
+        }
+        long start = System.nanoTime();
+        boolean doctor = SessionManager.isDoctor();
+        Integer referenceId = SessionManager.getReferenceId();
+        ScopedIndex scoped = scopedIndex;
+        if (scoped == null || !scoped.isFor(doctor, referenceId)) {
+            synchronized (indexLock) {
+                // Loaded under the lock like the shared index
+                scoped = new ScopedIndex(doctor, referenceId, buildIndex(loadScoped()));
+                scopedIndex = scoped;
+            }
+        }
+        List<Prescription> results = search(scoped.index, keyword);
+        PerformanceLogger.log("searchVisiblePrescriptions (Index)", start);
+        return results;
+    }
+
+    /**
+     * Drops what was kept for the signed-in user.
+     */
+    public void endSession() {
+        synchronized (indexLock) {
+            scopedIndex = null;
+        }
+    }
+
+    // A doctor's or patient's own prescriptions; nothing when the account
+    // is not linked to a doctor or patient record
+    private List<Prescription> loadScoped() throws SQLException {
+        Integer referenceId = SessionManager.getReferenceId();
+        if (referenceId == null) {
+            return new ArrayList<>();
+        }
+        return SessionManager.isDoctor()
+                ? prescriptionDAO.getPrescriptionsByDoctorId(referenceId)
+                : prescriptionDAO.getPrescriptionsByPatientId(referenceId);
+    }
+
+    /**
+     * Drops the search index after a patient or doctor was renamed or
+     * deleted, which changes indexed names or deletes prescriptions outside
+     * this service. The next search rebuilds it.
+     */
+    public void invalidateSearchIndex() {
+        synchronized (indexLock) {
+            searchIndex = null;
+            scopedIndex = null;
+        }
+    }
+
+    private static List<Prescription> search(ItemSearchIndex index, String keyword) {
+        Map<Integer, Prescription> matches = new HashMap<>();
+        for (Integer itemId : index.tokens.search(keyword)) {
+            PrescriptionItem item = index.items.get(itemId);
+            Prescription header = item != null ? index.prescriptions.get(item.getPrescriptionId()) : null;
+            if (header == null) {
+                // Removed since the token lookup
+                continue;
+            }
+            matches.computeIfAbsent(header.getId(), id -> copyHeader(header)).addItem(item);
+        }
+
+        List<Prescription> results = new ArrayList<>(matches.values());
+        for (Prescription p : results) {
+            p.getItems().sort(Comparator.comparingInt(PrescriptionItem::getId));
+        }
+        results.sort(NEWEST_FIRST);
+        return results;
+    }
+
+    private void reindex(int prescriptionId) throws SQLException {
+        synchronized (indexLock) {
+            scopedIndex = null;
+            ItemSearchIndex index = searchIndex;
+            if (index == null) {
+                return;
+            }
+            // Reloaded so that items carry their ids and medicine names
+            Prescription prescription = prescriptionDAO.getPrescriptionWithItems(prescriptionId);
+            if (prescription == null) {
+                index.remove(prescriptionId);
+                return;
+            }
+            Patient patient = patientService.getPatientById(prescription.getPatientId());
+            Doctor doctor = doctorService.getDoctorById(prescription.getDoctorId());
+            index.add(prescription, fullName(patient), fullName(doctor));
+        }
+    }
+
+    private ItemSearchIndex buildIndex(List<Prescription> prescriptions) throws SQLException {
+        Set<Integer> patientIds = new HashSet<>();
+        Set<Integer> doctorIds = new HashSet<>();
+        for (Prescription p : prescriptions) {
+            patientIds.add(p.getPatientId());
+            doctorIds.add(p.getDoctorId());
+        }
+        Map<Integer, Patient> patients = patientService.getPatientsByIds(patientIds);
+        Map<Integer, Doctor> doctors = doctorService.getDoctorsByIds(doctorIds);
+
+        ItemSearchIndex index = new ItemSearchIndex();
+        for (Prescription p : prescriptions) {
+            index.add(p, fullName(patients.get(p.getPatientId())), fullName(doctors.get(p.getDoctorId())));
+        }
+        return index;
+    }
+
+    private static Prescription copyHeader(Prescription p) {
+        Prescription copy = new Prescription(p.getId(), p.getPatientId(), p.getDoctorId(), p.getAppointmentId(),
+                p.getNotes());
+        copy.setPrescriptionDate(p.getPrescriptionDate());
+        return copy;
+    }
+
+    private static String fullName(Patient patient) {
+        return patient != null ? patient.getFirstName() + " " + patient.getLastName() : null;
+    }
+
+    private static String fullName(Doctor doctor) {
+        return doctor != null ? doctor.getFirstName() + " " + doctor.getLastName() : null;
+    }
+
+    /**
+     * An index over one doctor's or patient's prescriptions.
+     */
+    private static class ScopedIndex {
+        private final boolean doctor;
+        private final Integer referenceId;
+        private final ItemSearchIndex index;
+
+        ScopedIndex(boolean doctor, Integer referenceId, ItemSearchIndex index) {
+            this.doctor = doctor;
+            this.referenceId = referenceId;
+            this.index = index;
+        }
+
+        boolean isFor(boolean doctor, Integer referenceId) {
+            return this.doctor == doctor && Objects.equals(this.referenceId, referenceId);
+        }
+    }
+
+    /**
+     * Token index over prescription items, keyed by item id, with the
+     * indexed prescriptions and items for turning matches back into rows.
+     */
+    private static class ItemSearchIndex {
+        private final TokenIndex<Integer> tokens = new TokenIndex<>();
+        private final Map<Integer, Prescription> prescriptions = new ConcurrentHashMap<>();
+        private final Map<Integer, PrescriptionItem> items = new ConcurrentHashMap<>();
+
+        void add(Prescription prescription, String patientName, String doctorName) {
+            remove(prescription.getId());
+            prescriptions.put(prescription.getId(), prescription);
+            if (prescription.getItems() == null) {
+                return;
+            }
+            for (PrescriptionItem item : prescription.getItems()) {
+                items.put(item.getId(), item);
+                tokens.put(item.getId(), patientName, doctorName, item.getMedicineName(),
+                        item.getDosageInstructions());
+            }
+        }
+
+        void remove(int prescriptionId) {
+            Prescription previous = prescriptions.remove(prescriptionId);
+            if (previous == null || previous.getItems() == null) {
+                return;
+            }
+            List<Integer> itemIds = new ArrayList<>();
+            for (PrescriptionItem item : previous.getItems()) {
+                items.remove(item.getId());
+                itemIds.add(item.getId());
+            }
+            tokens.removeAll(itemIds);
+        }
+    }
 }
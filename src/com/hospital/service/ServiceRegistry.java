@@ -0,0 +1,118 @@
+package com.hospital.service;
+
+/**
+ * Application-wide holder for the service singletons.
+ *
+ * Controllers are recreated every time a view is opened, so they fetch their
+ * services from here instead of constructing new ones; the entity caches and
+ * the MongoDB client inside the services then live for the whole session.
+ * The services are created together on first use, normally from
+ * initialize() right after login, and are safe to share across threads.
+ */
+public final class ServiceRegistry {
+
+    private static volatile ServiceRegistry instance;
+
+    private final PatientService patientService;
+    private final DoctorService doctorService;
+    private final AppointmentService appointmentService;
+    private final PrescriptionService prescriptionService;
+    private final InventoryService inventoryService;
+    private final DepartmentService departmentService;
+    private final FeedbackService feedbackService;
+    private final DashboardService dashboardService;
+
+    private ServiceRegistry() {
+        this.patientService = new PatientService();
+        this.doctorService = new DoctorService();
+        this.appointmentService = new AppointmentService();
+        this.prescriptionService = new PrescriptionService(patientService, doctorService);
+        this.inventoryService = new InventoryService();
+        this.departmentService = new DepartmentService();
+        this.feedbackService = new FeedbackService();
+        this.dashboardService = new DashboardService();
+
+        // Deleting a patient or doctor deletes their appointments and
+        // prescriptions too; renaming one changes the indexed names
+        WriteListener peopleChanged = (change, id) -> {
+            if (change == WriteListener.Change.DELETED) {
+                appointmentService.invalidateCounts();
+            }
+            if (change != WriteListener.Change.ADDED) {
+                prescriptionService.invalidateSearchIndex();
+            }
+            dashboardService.invalidate();
+        };
+        patientService.addWriteListener(peopleChanged);
+        doctorService.addWriteListener(peopleChanged);
+
+        // The dashboard counts all four
+        appointmentService.addWriteListener((change, id) -> dashboardService.invalidate());
+        departmentService.addWriteListener((change, id) -> dashboardService.invalidate());
+    }
+
+    /**
+     * Creates the services if they do not exist yet. Safe to call more than
+     * once.
+     */
+    public static void initialize() {
+        get();
+    }
+
+    /**
+     * Drops what the services keep for the signed-in user. Called at
+     * sign-out.
+     */
+    public static void endSession() {
+        ServiceRegistry registry = instance;
+        if (registry != null) {
+            registry.prescriptionService.endSession();
+        }
+    }
+
+    private static ServiceRegistry get() {
+        ServiceRegistry registry = instance;
+        if (registry == null) {
+            synchronized (ServiceRegistry.class) {
+                registry = instance;
+                if (registry == null) {
+                    registry = new ServiceRegistry();
+                    instance = registry;
+                }
+            }
+        }
+        return registry;
+    }
+
+    public static PatientService getPatientService() {
+        return get().patientService;
+    }
+
+    public static DoctorService getDoctorService() {
+        return get().doctorService;
+    }
+
+    public static AppointmentService getAppointmentService() {
+        return get().appointmentService;
+    }
+
+    public static PrescriptionService getPrescriptionService() {
+        return get().prescriptionService;
+    }
+
+    public static InventoryService getInventoryService() {
+        return get().inventoryService;
+    }
+
+    public static DepartmentService getDepartmentService() {
+        return get().departmentService;
+    }
+
+    public static FeedbackService getFeedbackService() {
+        return get().feedbackService;
+    }
+
+    public static DashboardService getDashboardService() {
+        return get().dashboardService;
+    }
+}
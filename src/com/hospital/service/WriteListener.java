@@ -0,0 +1,17 @@
+package com.hospital.service;
+
+/**
+ * Told after a service has written an entity, so that other services can
+ * drop what they derived from it, e.g. counts over rows the database deleted
+ * along with it. Called on the writing thread once the write is committed;
+ * must be fast.
+ */
+@FunctionalInterface
+public interface WriteListener {
+
+    enum Change {
+        ADDED, UPDATED, DELETED
+    }
+
+    void onWrite(Change change, int id);
+}
@@ -0,0 +1,546 @@
+package com.hospital.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.Iterator;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded, self-validating JDBC connection pool.
+ *
+ * Connections handed out by {@link #getConnection()} are proxies: calling
+ * close() returns the physical connection to the pool instead of tearing down
+ * the PostgreSQL session. A background housekeeper evicts idle connections
+ * above the minimum size, tops the pool back up, and reports connections that
+ * have been borrowed for longer than the leak threshold.
+ *
+ * Each pooled connection also keeps a {@link StatementCache}, so repeated
+ * prepareStatement calls with the same SQL reuse the statement already
+ * prepared on that connection.
+ */
+public class ConnectionPool {
+
+    // Connections returned more recently than this are handed out without a
+    // validation round trip
+    private static final long VALIDATION_SKIP_WINDOW_MS = 500;
+    private static final long HOUSEKEEPING_INTERVAL_MS = 30_000;
+
+    private final String url;
+    private final Properties connectionProperties;
+    private final int minSize;
+    private final int maxSize;
+    private final long idleTimeoutMs;
+    private final long acquireTimeoutMs;
+    private final long leakThresholdMs;
+    private final int validationTimeoutSeconds;
+    private final int statementCacheSize;
+
+    private final LinkedBlockingDeque<PooledConnection> idleConnections = new LinkedBlockingDeque<>();
+    private final Set<PooledConnection> borrowedConnections = ConcurrentHashMap.newKeySet();
+    private final Semaphore permits;
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean closed = false;
+
+    // Statistics
+    private final AtomicInteger totalConnections = new AtomicInteger();
+    private final AtomicLong connectionsCreated = new AtomicLong();
+    private final AtomicLong connectionsDestroyed = new AtomicLong();
+    private final AtomicLong acquireCount = new AtomicLong();
+    private final AtomicLong acquireTimeouts = new AtomicLong();
+    private final AtomicLong totalAcquireNanos = new AtomicLong();
+    private final AtomicLong validationFailures = new AtomicLong();
+    private final AtomicLong leaksDetected = new AtomicLong();
+    private final AtomicLong statementCacheHits = new AtomicLong();
+    private final AtomicLong statementCacheMisses = new AtomicLong();
+    private final AtomicLong statementCacheEvictions = new AtomicLong();
+
+    /**
+     * @param statementCacheSize prepared statements cached per connection; 0
+     *                           disables the cache
+     * @param prepareThreshold   executions before the PostgreSQL driver
+     *                           switches a statement to a server-side
+     *                           prepared statement; 0 keeps the driver
+     *                           default
+     */
+    public ConnectionPool(String url, String user, String password, int minSize, int maxSize,
+            long idleTimeoutMs, long acquireTimeoutMs, long leakThresholdMs, int validationTimeoutSeconds,
+            int statementCacheSize, int prepareThreshold) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Pool max size must be at least 1");
+        }
+        this.url = url;
+        this.connectionProperties = new Properties();
+        connectionProperties.setProperty("user", user);
+        connectionProperties.setProperty("password", password);
+        if (prepareThreshold > 0) {
+            connectionProperties.setProperty("prepareThreshold", String.valueOf(prepareThreshold));
+        }
+        this.maxSize = maxSize;
+        this.minSize = Math.max(0, Math.min(minSize, maxSize));
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.acquireTimeoutMs = acquireTimeoutMs;
+        this.leakThresholdMs = leakThresholdMs;
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+        this.statementCacheSize = Math.max(0, statementCacheSize);
+        this.permits = new Semaphore(maxSize, true);
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "db-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        housekeeper.scheduleWithFixedDelay(this::runHousekeeping,
+                0, HOUSEKEEPING_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrows a connection, waiting up to the acquire timeout if the pool is
+     * exhausted. Close the returned connection to give it back.
+     */
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool has been shut down");
+        }
+
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+                acquireTimeouts.incrementAndGet();
+                throw new SQLTimeoutException("Timed out after " + acquireTimeoutMs
+                        + " ms waiting for a database connection (pool max size " + maxSize + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+
+        try {
+            PooledConnection pooled = takeValidIdleConnection();
+            if (pooled == null) {
+                pooled = createConnection();
+            }
+            pooled.markBorrowed(leakThresholdMs > 0);
+            borrowedConnections.add(pooled);
+
+            acquireCount.incrementAndGet();
+            totalAcquireNanos.addAndGet(System.nanoTime() - start);
+            return pooled.createHandle();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private PooledConnection takeValidIdleConnection() {
+        PooledConnection pooled;
+        while ((pooled = idleConnections.pollFirst()) != null) {
+            if (isUsable(pooled)) {
+                return pooled;
+            }
+            validationFailures.incrementAndGet();
+            destroy(pooled);
+        }
+        return null;
+    }
+
+    private boolean isUsable(PooledConnection pooled) {
+        if (System.currentTimeMillis() - pooled.lastReturnedAt < VALIDATION_SKIP_WINDOW_MS) {
+            return true;
+        }
+        try {
+            return pooled.physical.isValid(validationTimeoutSeconds);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private PooledConnection createConnection() throws SQLException {
+        Connection physical = DriverManager.getConnection(url, connectionProperties);
+        totalConnections.incrementAndGet();
+        connectionsCreated.incrementAndGet();
+        return new PooledConnection(physical);
+    }
+
+    private void release(PooledConnection pooled) {
+        borrowedConnections.remove(pooled);
+        try {
+            if (closed || pooled.broken || !resetState(pooled)) {
+                destroy(pooled);
+            } else {
+                pooled.lastReturnedAt = System.currentTimeMillis();
+                // LIFO: hot connections stay hot, cold ones age out
+                idleConnections.offerFirst(pooled);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Restores the session defaults the DAOs expect, rolling back anything a
+     * caller left uncommitted.
+     */
+    private boolean resetState(PooledConnection pooled) {
+        try {
+            Connection conn = pooled.physical;
+            if (conn.isClosed()) {
+                return false;
+            }
+            if (!conn.getAutoCommit()) {
+                conn.rollback();
+                conn.setAutoCommit(true);
+            }
+            if (conn.isReadOnly()) {
+                conn.setReadOnly(false);
+            }
+            conn.clearWarnings();
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void destroy(PooledConnection pooled) {
+        totalConnections.decrementAndGet();
+        connectionsDestroyed.incrementAndGet();
+        try {
+            if (pooled.statementCache != null) {
+                pooled.statementCache.closeAll();
+            }
+            pooled.physical.close();
+        } catch (SQLException e) {
+            // Already unusable, nothing else to do
+        }
+    }
+
+    private void runHousekeeping() {
+        try {
+            evictIdleConnections();
+            fillToMinimum();
+            detectLeaks();
+        } catch (RuntimeException e) {
+            System.err.println("Connection pool housekeeping failed: " + e.getMessage());
+        }
+    }
+
+    private void evictIdleConnections() {
+        long now = System.currentTimeMillis();
+        Iterator<PooledConnection> it = idleConnections.descendingIterator();
+        while (it.hasNext() && totalConnections.get() > minSize) {
+            PooledConnection pooled = it.next();
+            if (now - pooled.lastReturnedAt > idleTimeoutMs && idleConnections.remove(pooled)) {
+                destroy(pooled);
+            }
+        }
+    }
+
+    private void fillToMinimum() {
+        while (!closed && totalConnections.get() < minSize && permits.tryAcquire()) {
+            try {
+                PooledConnection pooled = createConnection();
+                pooled.lastReturnedAt = System.currentTimeMillis();
+                idleConnections.offerLast(pooled);
+            } catch (SQLException e) {
+                System.err.println("Connection pool could not pre-open a connection: " + e.getMessage());
+                return;
+            } finally {
+                permits.release();
+            }
+        }
+    }
+
+    private void detectLeaks() {
+        if (leakThresholdMs <= 0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        for (PooledConnection pooled : borrowedConnections) {
+            if (!pooled.leakReported && now - pooled.borrowedAt > leakThresholdMs) {
+                pooled.leakReported = true;
+                leaksDetected.incrementAndGet();
+                System.err.println("⚠️ Possible connection leak: connection borrowed "
+                        + (now - pooled.borrowedAt) + " ms ago and not yet returned.");
+                if (pooled.borrowSite != null) {
+                    pooled.borrowSite.printStackTrace();
+                }
+            }
+        }
+    }
+
+    /**
+     * Closes all idle connections and stops the housekeeper. Borrowed
+     * connections are closed as they are returned.
+     */
+    public void shutdown() {
+        closed = true;
+        housekeeper.shutdownNow();
+        PooledConnection pooled;
+        while ((pooled = idleConnections.pollFirst()) != null) {
+            destroy(pooled);
+        }
+    }
+
+    public PoolStats getStats() {
+        long acquired = acquireCount.get();
+        return new PoolStats(
+                totalConnections.get(),
+                idleConnections.size(),
+                borrowedConnections.size(),
+                permits.getQueueLength(),
+                minSize,
+                maxSize,
+                connectionsCreated.get(),
+                connectionsDestroyed.get(),
+                acquired,
+                acquireTimeouts.get(),
+                acquired == 0 ? 0 : totalAcquireNanos.get() / acquired / 1000,
+                validationFailures.get(),
+                leaksDetected.get(),
+                statementCacheHits.get(),
+                statementCacheMisses.get(),
+                statementCacheEvictions.get());
+    }
+
+    /**
+     * A physical connection plus its pool bookkeeping.
+     */
+    private class PooledConnection {
+        private final Connection physical;
+        private final StatementCache statementCache;
+        private volatile long lastReturnedAt;
+        private volatile long borrowedAt;
+        private volatile Throwable borrowSite;
+        private volatile boolean leakReported;
+        private volatile boolean broken;
+
+        PooledConnection(Connection physical) {
+            this.physical = physical;
+            this.statementCache = statementCacheSize > 0
+                    ? new StatementCache(physical, statementCacheSize,
+                            statementCacheHits, statementCacheMisses, statementCacheEvictions)
+                    : null;
+        }
+
+        void markBorrowed(boolean captureSite) {
+            borrowedAt = System.currentTimeMillis();
+            borrowSite = captureSite ? new Throwable("Connection borrowed here") : null;
+            leakReported = false;
+        }
+
+        Connection createHandle() {
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[] { Connection.class },
+                    new ConnectionHandle(this));
+        }
+    }
+
+    /**
+     * The object callers see. close() hands the physical connection back
+     * exactly once; any later use fails instead of touching a connection that
+     * now belongs to someone else.
+     */
+    private class ConnectionHandle implements InvocationHandler {
+        private final PooledConnection pooled;
+        // Set by the first close() only, even when several threads close
+        // the handle at once
+        private final AtomicBoolean returned = new AtomicBoolean();
+
+        ConnectionHandle(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (returned.compareAndSet(false, true)) {
+                        release(pooled);
+                    }
+                    return null;
+                case "isClosed":
+                    return returned.get() || pooled.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + pooled.physical + "]";
+                default:
+                    break;
+            }
+
+            if (returned.get()) {
+                throw new SQLException("Connection has already been returned to the pool");
+            }
+
+            if (pooled.statementCache != null && "prepareStatement".equals(method.getName())) {
+                Class<?>[] params = method.getParameterTypes();
+                if (params.length == 1) {
+                    return pooled.statementCache.prepare((String) args[0], -1);
+                }
+                if (params.length == 2 && params[1] == int.class) {
+                    return pooled.statementCache.prepare((String) args[0], (Integer) args[1]);
+                }
+            }
+
+            try {
+                return method.invoke(pooled.physical, args);
+            } catch (InvocationTargetException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof SQLException && isFatal((SQLException) cause)) {
+                    pooled.broken = true;
+                }
+                throw cause;
+            }
+        }
+
+        // SQLState class 08 = connection exception
+        private boolean isFatal(SQLException e) {
+            String state = e.getSQLState();
+            return state != null && state.startsWith("08");
+        }
+    }
+
+    /**
+     * Point-in-time snapshot of pool usage.
+     */
+    public static class PoolStats {
+        private final int totalConnections;
+        private final int idleConnections;
+        private final int activeConnections;
+        private final int waitingThreads;
+        private final int minSize;
+        private final int maxSize;
+        private final long connectionsCreated;
+        private final long connectionsDestroyed;
+        private final long acquireCount;
+        private final long acquireTimeouts;
+        private final long averageAcquireMicros;
+        private final long validationFailures;
+        private final long leaksDetected;
+        private final long statementCacheHits;
+        private final long statementCacheMisses;
+        private final long statementCacheEvictions;
+
+        PoolStats(int totalConnections, int idleConnections, int activeConnections, int waitingThreads,
+                int minSize, int maxSize, long connectionsCreated, long connectionsDestroyed,
+                long acquireCount, long acquireTimeouts, long averageAcquireMicros,
+                long validationFailures, long leaksDetected,
+                long statementCacheHits, long statementCacheMisses, long statementCacheEvictions) {
+            this.totalConnections = totalConnections;
+            this.idleConnections = idleConnections;
+            this.activeConnections = activeConnections;
+            this.waitingThreads = waitingThreads;
+            this.minSize = minSize;
+            this.maxSize = maxSize;
+            this.connectionsCreated = connectionsCreated;
+            this.connectionsDestroyed = connectionsDestroyed;
+            this.acquireCount = acquireCount;
+            this.acquireTimeouts = acquireTimeouts;
+            this.averageAcquireMicros = averageAcquireMicros;
+            this.validationFailures = validationFailures;
+            this.leaksDetected = leaksDetected;
+            this.statementCacheHits = statementCacheHits;
+            this.statementCacheMisses = statementCacheMisses;
+            this.statementCacheEvictions = statementCacheEvictions;
+        }
+
+        public int getTotalConnections() {
+            return totalConnections;
+        }
+
+        public int getIdleConnections() {
+            return idleConnections;
+        }
+
+        public int getActiveConnections() {
+            return activeConnections;
+        }
+
+        public int getWaitingThreads() {
+            return waitingThreads;
+        }
+
+        public int getMinSize() {
+            return minSize;
+        }
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public long getConnectionsCreated() {
+            return connectionsCreated;
+        }
+
+        public long getConnectionsDestroyed() {
+            return connectionsDestroyed;
+        }
+
+        public long getAcquireCount() {
+            return acquireCount;
+        }
+
+        public long getAcquireTimeouts() {
+            return acquireTimeouts;
+        }
+
+        public long getAverageAcquireMicros() {
+            return averageAcquireMicros;
+        }
+
+        public long getValidationFailures() {
+            return validationFailures;
+        }
+
+        public long getLeaksDetected() {
+            return leaksDetected;
+        }
+
+        public long getStatementCacheHits() {
+            return statementCacheHits;
+        }
+
+        public long getStatementCacheMisses() {
+            return statementCacheMisses;
+        }
+
+        public long getStatementCacheEvictions() {
+            return statementCacheEvictions;
+        }
+
+        public double getStatementCacheHitRatio() {
+            long lookups = statementCacheHits + statementCacheMisses;
+            return lookups == 0 ? 0.0 : (double) statementCacheHits / lookups;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                    "PoolStats[total=%d, idle=%d, active=%d, waiting=%d, min=%d, max=%d, created=%d, destroyed=%d, "
+                            + "acquired=%d, timeouts=%d, avgAcquire=%dus, validationFailures=%d, leaks=%d, "
+                            + "stmtCacheHits=%d, stmtCacheMisses=%d, stmtCacheEvictions=%d]",
+                    totalConnections, idleConnections, activeConnections, waitingThreads, minSize, maxSize,
+                    connectionsCreated, connectionsDestroyed, acquireCount, acquireTimeouts,
+                    averageAcquireMicros, validationFailures, leaksDetected,
+                    statementCacheHits, statementCacheMisses, statementCacheEvictions);
+        }
+    }
+}
@@ -1,7 +1,6 @@
 package com.hospital.util;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 
 public class DBUtil {
@@ -9,6 +8,8 @@ public class DBUtil {
     private static String USER;
     private static String PASSWORD;
 
+    private static final ConnectionPool POOL;
+
     static {
         // Load properties from .env
         URL = EnvUtil.get("DB_URL", "jdbc:postgresql://localhost:5432/hospital_db");
@@ -21,9 +22,27 @@ public class DBUtil {
             System.err.println("PostgreSQL Driver not found!");
             e.printStackTrace();
         }
+
+        POOL = new ConnectionPool(URL, USER, PASSWORD,
+                EnvUtil.getInt("DB_POOL_MIN_SIZE", 2),
+                EnvUtil.getInt("DB_POOL_MAX_SIZE", 10),
+                EnvUtil.getLong("DB_POOL_IDLE_TIMEOUT_MS", 300_000),
+                EnvUtil.getLong("DB_POOL_ACQUIRE_TIMEOUT_MS", 10_000),
+                EnvUtil.getLong("DB_POOL_LEAK_THRESHOLD_MS", 60_000),
+                EnvUtil.getInt("DB_POOL_VALIDATION_TIMEOUT_S", 2),
+                EnvUtil.getInt("DB_STATEMENT_CACHE_SIZE", 64),
+                EnvUtil.getInt("DB_PREPARE_THRESHOLD", 2));
+        Runtime.getRuntime().addShutdownHook(new Thread(POOL::shutdown, "db-pool-shutdown"));
     }
 
+    /**
+     * Borrows a pooled connection. Closing it returns it to the pool.
+     */
     public static Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(URL, USER, PASSWORD);
+        return POOL.getConnection();
+    }
+
+    public static ConnectionPool.PoolStats getPoolStats() {
+        return POOL.getStats();
     }
 }
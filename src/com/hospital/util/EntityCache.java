@@ -0,0 +1,418 @@
+package com.hospital.util;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Bounded, thread-safe cache for entities loaded from the database.
+ *
+ * Reads are lock-free. Each entry counts how often it is read; once the
+ * cache grows past its maximum size, the least frequently used entries
+ * (oldest first on ties) are evicted down to 90% of capacity. Every
+ * 10 x maxSize reads all counts are halved so that old popularity fades.
+ * Entries expire a fixed time after they were written, and when a loader is
+ * supplied they are reloaded in the background once they pass the refresh
+ * interval, while the current value keeps being served.
+ */
+public class EntityCache<K, V> {
+
+    /**
+     * Loads a value for a key, typically a DAO lookup. May return null.
+     */
+    @FunctionalInterface
+    public interface Loader<K, V> {
+        V load(K key) throws SQLException;
+    }
+
+    /**
+     * Notified when an entry is written or leaves the cache for any reason,
+     * e.g. to keep a secondary index over the cached values in step. Called
+     * on the thread that made the change; must be fast and must not call
+     * back into the cache.
+     */
+    public interface Listener<K, V> {
+        void onWrite(K key, V value);
+
+        void onRemoval(K key);
+    }
+
+    private static final int STAMP_STRIPES = 64;
+
+    private static final ExecutorService REFRESHER = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "entity-cache-refresh");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final String name;
+    private final int maxSize;
+    private final long expireAfterWriteNanos;
+    private final long refreshAfterWriteNanos;
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final AtomicLong readsSinceAging = new AtomicLong();
+    // Bumped by invalidate() for every key of the stripe; a miss only caches
+    // what it loaded if its stripe was not bumped during the load
+    private final AtomicLongArray invalidationStamps = new AtomicLongArray(STAMP_STRIPES);
+    private volatile Listener<K, V> listener;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+
+    /**
+     * @param maxSize                entries kept before eviction starts
+     * @param expireAfterWriteMs     age at which an entry is dropped, 0 for
+     *                               never
+     * @param refreshAfterWriteMs    age at which get(key, loader) reloads an
+     *                               entry in the background, 0 for never
+     */
+    public EntityCache(String name, int maxSize, long expireAfterWriteMs, long refreshAfterWriteMs) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be at least 1");
+        }
+        this.name = name;
+        this.maxSize = maxSize;
+        this.expireAfterWriteNanos = expireAfterWriteMs * 1_000_000L;
+        this.refreshAfterWriteNanos = refreshAfterWriteMs * 1_000_000L;
+    }
+
+    /**
+     * Creates a cache sized from CACHE_MAX_ENTRIES, CACHE_EXPIRE_AFTER_WRITE_MS
+     * and CACHE_REFRESH_AFTER_WRITE_MS in .env.
+     */
+    public static <K, V> EntityCache<K, V> fromEnv(String name) {
+        return new EntityCache<>(name,
+                EnvUtil.getInt("CACHE_MAX_ENTRIES", 5_000),
+                EnvUtil.getLong("CACHE_EXPIRE_AFTER_WRITE_MS", 600_000),
+                EnvUtil.getLong("CACHE_REFRESH_AFTER_WRITE_MS", 300_000));
+    }
+
+    /**
+     * Returns the cached value, or null if absent or expired.
+     */
+    public V getIfPresent(K key) {
+        Entry<V> entry = lookup(key);
+        return entry != null ? entry.value : null;
+    }
+
+    /**
+     * Returns the cached value, loading and caching it on a miss. A stale
+     * entry is returned as-is and refreshed in the background.
+     */
+    public V get(K key, Loader<K, V> loader) throws SQLException {
+        Entry<V> entry = lookup(key);
+        if (entry != null) {
+            if (refreshAfterWriteNanos > 0 && System.nanoTime() - entry.writtenAt > refreshAfterWriteNanos) {
+                scheduleRefresh(key, entry, loader);
+            }
+            return entry.value;
+        }
+
+        loads.incrementAndGet();
+        int stripe = stripeOf(key);
+        long stamp = invalidationStamps.get(stripe);
+        V value = loader.load(key);
+        if (value != null) {
+            putLoaded(key, value, stripe, stamp);
+        }
+        return value;
+    }
+
+    /**
+     * Caches a value loaded on a miss, unless the key was invalidated while
+     * it loaded (the value may be a row deleted since) or another thread has
+     * cached a value meanwhile.
+     */
+    private void putLoaded(K key, V value, int stripe, long stamp) {
+        boolean[] added = new boolean[1];
+        entries.compute(key, (k, old) -> {
+            // invalidate() bumps the stamp before removing, so a check made
+            // here either sees the bump or is followed by the removal
+            if (old != null || invalidationStamps.get(stripe) != stamp) {
+                return old;
+            }
+            notifyWrite(k, value);
+            added[0] = true;
+            return new Entry<>(value, 1);
+        });
+        if (added[0] && entries.size() > maxSize) {
+            evict();
+        }
+    }
+
+    public void setListener(Listener<K, V> listener) {
+        this.listener = listener;
+    }
+
+    public void put(K key, V value) {
+        // A write counts as one use, so a fresh entry outranks ones never read
+        entries.compute(key, (k, old) -> {
+            notifyWrite(k, value);
+            return new Entry<>(value, old != null ? old.frequency + 1 : 1);
+        });
+        if (entries.size() > maxSize) {
+            evict();
+        }
+    }
+
+    /**
+     * Adds or replaces every value without touching other entries.
+     */
+    public void putAll(Collection<? extends V> values, Function<? super V, ? extends K> keyOf) {
+        for (V value : values) {
+            put(keyOf.apply(value), value);
+        }
+    }
+
+    public void invalidate(K key) {
+        invalidationStamps.incrementAndGet(stripeOf(key));
+        if (entries.remove(key) != null) {
+            notifyRemoval(key);
+        }
+    }
+
+    public void invalidateAll() {
+        for (K key : entries.keySet()) {
+            invalidate(key);
+        }
+    }
+
+    /**
+     * Snapshot of the unexpired values. Does not count as reads.
+     */
+    public List<V> values() {
+        long now = System.nanoTime();
+        List<V> values = new ArrayList<>(entries.size());
+        for (Entry<V> entry : entries.values()) {
+            if (!isExpired(entry, now)) {
+                values.add(entry.value);
+            }
+        }
+        return values;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public CacheStats getStats() {
+        return new CacheStats(name, entries.size(), maxSize, hits.get(), misses.get(), loads.get(),
+                evictions.get(), expirations.get());
+    }
+
+    private Entry<V> lookup(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        if (isExpired(entry, System.nanoTime())) {
+            if (entries.remove(key, entry)) {
+                expirations.incrementAndGet();
+                notifyRemoval(key);
+            }
+            misses.incrementAndGet();
+            return null;
+        }
+        entry.frequency++;
+        hits.incrementAndGet();
+        if (readsSinceAging.incrementAndGet() >= 10L * maxSize) {
+            age();
+        }
+        return entry;
+    }
+
+    private int stripeOf(K key) {
+        int h = key.hashCode();
+        return (h ^ (h >>> 16)) & (STAMP_STRIPES - 1);
+    }
+
+    private boolean isExpired(Entry<V> entry, long now) {
+        return expireAfterWriteNanos > 0 && now - entry.writtenAt > expireAfterWriteNanos;
+    }
+
+    private void scheduleRefresh(K key, Entry<V> entry, Loader<K, V> loader) {
+        if (!entry.refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        REFRESHER.execute(() -> {
+            try {
+                loads.incrementAndGet();
+                V value = loader.load(key);
+                if (value != null) {
+                    if (entries.replace(key, entry, new Entry<>(value, entry.frequency))) {
+                        notifyWrite(key, value);
+                    }
+                } else if (entries.remove(key, entry)) {
+                    notifyRemoval(key);
+                }
+            } catch (SQLException e) {
+                // Keep serving the current value; the next read retries
+                entry.refreshing.set(false);
+                System.err.println("Cache " + name + " failed to refresh " + key + ": " + e.getMessage());
+            }
+        });
+    }
+
+    private void evict() {
+        // One thread evicts at a time; others carry on and may briefly
+        // overshoot the bound
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            if (entries.size() <= maxSize) {
+                return;
+            }
+
+            long now = System.nanoTime();
+            List<Map.Entry<K, Entry<V>>> candidates = new ArrayList<>(entries.size());
+            for (Map.Entry<K, Entry<V>> e : entries.entrySet()) {
+                if (isExpired(e.getValue(), now)) {
+                    if (entries.remove(e.getKey(), e.getValue())) {
+                        expirations.incrementAndGet();
+                        notifyRemoval(e.getKey());
+                    }
+                } else {
+                    candidates.add(e);
+                }
+            }
+
+            int target = maxSize - maxSize / 10;
+            int excess = candidates.size() - target;
+            if (excess > 0 && entries.size() > maxSize) {
+                candidates.sort(Comparator
+                        .comparingInt((Map.Entry<K, Entry<V>> e) -> e.getValue().frequency)
+                        .thenComparingLong(e -> e.getValue().writtenAt));
+                for (int i = 0; i < excess; i++) {
+                    Map.Entry<K, Entry<V>> victim = candidates.get(i);
+                    if (entries.remove(victim.getKey(), victim.getValue())) {
+                        evictions.incrementAndGet();
+                        notifyRemoval(victim.getKey());
+                    }
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private void notifyWrite(K key, V value) {
+        Listener<K, V> l = listener;
+        if (l != null) {
+            l.onWrite(key, value);
+        }
+    }
+
+    private void notifyRemoval(K key) {
+        Listener<K, V> l = listener;
+        if (l != null) {
+            l.onRemoval(key);
+        }
+    }
+
+    private void age() {
+        readsSinceAging.set(0);
+        for (Entry<V> entry : entries.values()) {
+            entry.frequency >>= 1;
+        }
+    }
+
+    private static class Entry<V> {
+        private final V value;
+        private final long writtenAt = System.nanoTime();
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+        // Approximate: concurrent increments may be lost, which is fine for
+        // ranking eviction candidates
+        private volatile int frequency;
+
+        Entry(V value, int frequency) {
+            this.value = value;
+            this.frequency = frequency;
+        }
+    }
+
+    /**
+     * Point-in-time counters for one cache.
+     */
+    public static class CacheStats {
+        private final String name;
+        private final int size;
+        private final int maxSize;
+        private final long hits;
+        private final long misses;
+        private final long loads;
+        private final long evictions;
+        private final long expirations;
+
+        CacheStats(String name, int size, int maxSize, long hits, long misses, long loads, long evictions,
+                long expirations) {
+            this.name = name;
+            this.size = size;
+            this.maxSize = maxSize;
+            this.hits = hits;
+            this.misses = misses;
+            this.loads = loads;
+            this.evictions = evictions;
+            this.expirations = expirations;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public long getHits() {
+            return hits;
+        }
+
+        public long getMisses() {
+            return misses;
+        }
+
+        public long getLoads() {
+            return loads;
+        }
+
+        public long getEvictions() {
+            return evictions;
+        }
+
+        public long getExpirations() {
+            return expirations;
+        }
+
+        public double getHitRatio() {
+            long total = hits + misses;
+            return total == 0 ? 0.0 : (double) hits / total;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: size=%d/%d hits=%d misses=%d loads=%d evictions=%d expirations=%d hitRatio=%.2f",
+                    name, size, maxSize, hits, misses, loads, evictions, expirations, getHitRatio());
+        }
+    }
+}
@@ -42,11 +42,35 @@ public class EnvUtil {
         }
     }
 
+    /**
+     * Looks up a setting. A JVM system property with the same name (-DKEY=...)
+     * takes precedence over the .env file, so tools such as the benchmark
+     * harness can point the app at another database without editing .env.
+     */
     public static String get(String key) {
-        return ENV.get(key);
+        String override = System.getProperty(key);
+        return override != null ? override : ENV.get(key);
     }
 
     public static String get(String key, String defaultValue) {
-        return ENV.getOrDefault(key, defaultValue);
+        String value = get(key);
+        return value != null ? value : defaultValue;
+    }
+
+    public static int getInt(String key, int defaultValue) {
+        return (int) getLong(key, defaultValue);
+    }
+
+    public static long getLong(String key, long defaultValue) {
+        String value = get(key);
+        if (value == null || value.isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            System.err.println("⚠️ Invalid number for " + key + ": " + value + ", using " + defaultValue);
+            return defaultValue;
+        }
     }
 }
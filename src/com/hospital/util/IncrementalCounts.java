@@ -0,0 +1,92 @@
+package com.hospital.util;
+
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Counts per key (e.g. appointments per weekday) loaded once from the
+ * database and then adjusted in place as rows are written, so repeated reads
+ * do not rescan the table.
+ *
+ * Writers call version() before their database write and adjust(...) after
+ * it. If the counts were reloaded in between, that reload may or may not
+ * have seen the write, so the counts are dropped and the next read reloads
+ * them instead of guessing.
+ */
+public class IncrementalCounts<K> {
+
+    /**
+     * Loads the current counts, typically a GROUP BY query.
+     */
+    @FunctionalInterface
+    public interface Loader<K> {
+        Map<K, Integer> load() throws SQLException;
+    }
+
+    private final Loader<K> loader;
+    // Guarded by this; null until loaded or after being dropped
+    private Map<K, Integer> counts;
+    private long version;
+
+    public IncrementalCounts(Loader<K> loader) {
+        this.loader = loader;
+    }
+
+    /**
+     * Returns a copy of the counts, loading them first if needed.
+     */
+    public synchronized Map<K, Integer> get() throws SQLException {
+        if (counts == null) {
+            counts = new HashMap<>(loader.load());
+            version++;
+        }
+        return new HashMap<>(counts);
+    }
+
+    /**
+     * Whether counts are held; when not, writers can skip work done only to
+     * adjust them.
+     */
+    public synchronized boolean isLoaded() {
+        return counts != null;
+    }
+
+    /**
+     * Token to pass to adjust(...) once the write is done.
+     */
+    public synchronized long version() {
+        return version;
+    }
+
+    public void adjust(long version, K key, int delta) {
+        adjust(version, Map.of(key, delta));
+    }
+
+    /**
+     * Applies the deltas to the counts; keys dropping to zero are removed.
+     * Must be called after every write, even with no deltas, so that a
+     * reload racing the write is detected.
+     *
+     * @param version the value of version() taken before the write
+     */
+    public synchronized void adjust(long version, Map<K, Integer> deltas) {
+        if (counts == null) {
+            return;
+        }
+        if (version != this.version) {
+            counts = null;
+            return;
+        }
+        for (Map.Entry<K, Integer> e : deltas.entrySet()) {
+            counts.merge(e.getKey(), e.getValue(), (a, b) -> a + b == 0 ? null : a + b);
+        }
+    }
+
+    /**
+     * Drops the counts; the next get() reloads them.
+     */
+    public synchronized void invalidate() {
+        counts = null;
+    }
+}
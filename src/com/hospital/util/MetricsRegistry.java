@@ -0,0 +1,98 @@
+package com.hospital.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process registry holding one latency histogram per operation name.
+ * Fed by PerformanceLogger; read by the Performance view.
+ */
+public class MetricsRegistry {
+
+    private static final Map<String, LatencyHistogram> HISTOGRAMS = new ConcurrentHashMap<>();
+
+    private MetricsRegistry() {
+    }
+
+    public static void record(String operation, long durationNanos) {
+        HISTOGRAMS.computeIfAbsent(operation, k -> new LatencyHistogram()).record(durationNanos);
+    }
+
+    public static LatencyHistogram getHistogram(String operation) {
+        return HISTOGRAMS.get(operation);
+    }
+
+    /**
+     * Current statistics for every operation, slowest p99 first.
+     */
+    public static List<OperationStats> snapshot() {
+        List<OperationStats> stats = new ArrayList<>();
+        for (Map.Entry<String, LatencyHistogram> entry : HISTOGRAMS.entrySet()) {
+            stats.add(new OperationStats(entry.getKey(), entry.getValue()));
+        }
+        stats.sort(Comparator.comparingDouble(OperationStats::getP99Ms).reversed());
+        return stats;
+    }
+
+    public static void reset() {
+        HISTOGRAMS.clear();
+    }
+
+    /**
+     * Point-in-time summary of one operation's latency distribution.
+     */
+    public static class OperationStats {
+        private final String operation;
+        private final long count;
+        private final double p50Ms;
+        private final double p95Ms;
+        private final double p99Ms;
+        private final double maxMs;
+        private final double throughputPerSecond;
+
+        OperationStats(String operation, LatencyHistogram histogram) {
+            this.operation = operation;
+            this.count = histogram.getCount();
+            this.p50Ms = toMillis(histogram.getValueAtPercentile(50));
+            this.p95Ms = toMillis(histogram.getValueAtPercentile(95));
+            this.p99Ms = toMillis(histogram.getValueAtPercentile(99));
+            this.maxMs = toMillis(histogram.getMaxNanos());
+            this.throughputPerSecond = histogram.getThroughputPerSecond();
+        }
+
+        private static double toMillis(long nanos) {
+            return nanos / 1_000_000.0;
+        }
+
+        public String getOperation() {
+            return operation;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public double getP50Ms() {
+            return p50Ms;
+        }
+
+        public double getP95Ms() {
+            return p95Ms;
+        }
+
+        public double getP99Ms() {
+            return p99Ms;
+        }
+
+        public double getMaxMs() {
+            return maxMs;
+        }
+
+        public double getThroughputPerSecond() {
+            return throughputPerSecond;
+        }
+    }
+}
@@ -0,0 +1,290 @@
+package com.hospital.util;
+
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.ReadPreference;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.event.ClusterDescriptionChangedEvent;
+import com.mongodb.event.ClusterListener;
+import com.mongodb.event.ConnectionCheckOutFailedEvent;
+import com.mongodb.event.ConnectionCheckedInEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import com.mongodb.event.ConnectionClosedEvent;
+import com.mongodb.event.ConnectionCreatedEvent;
+import com.mongodb.event.ConnectionPoolListener;
+import org.bson.Document;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Process-wide MongoDB client, the MongoDB counterpart of DBUtil.
+ *
+ * The client, with its connection pool and monitor threads, is created once
+ * on first use from MONGODB_URI and the MONGODB_POOL_* settings in .env, and
+ * closed at shutdown. Creating it does not contact the server, so first use
+ * never waits on the network; the indexes the notes queries rely on are
+ * ensured on a background thread, retried until MongoDB can be reached.
+ * The driver's own server monitor tells whether the primary is reachable,
+ * so reads can skip MongoDB during an outage instead of waiting out the
+ * server selection timeout.
+ */
+public final class MongoUtil {
+
+    private static final String DEFAULT_DATABASE = "hospital_db";
+    private static final String DEFAULT_NOTES_COLLECTION = "patient_notes";
+
+    private static final long INDEX_RETRY_BASE_MS = 1_000;
+    private static final long INDEX_RETRY_MAX_MS = 60_000;
+
+    private static final PoolMetrics POOL_METRICS = new PoolMetrics();
+    private static final Reachability REACHABILITY = new Reachability();
+
+    private static boolean initialized;
+    private static MongoClient client;
+    private static MongoCollection<Document> notesCollection;
+    private static int maxPoolSize;
+
+    private MongoUtil() {
+    }
+
+    /**
+     * The patient notes collection, or null when MongoDB is not configured.
+     * Returned whether or not the server can be reached yet; operations on
+     * it fail until it can.
+     */
+    public static synchronized MongoCollection<Document> getNotesCollection() {
+        if (!initialized) {
+            initialized = true;
+            connect();
+        }
+        return notesCollection;
+    }
+
+    /**
+     * Whether the driver's monitor last found a primary to read from and
+     * write to. False until the first successful heartbeat after connecting.
+     */
+    public static boolean isReachable() {
+        return REACHABILITY.reachable;
+    }
+
+    public static PoolStats getPoolStats() {
+        return POOL_METRICS.snapshot(maxPoolSize);
+    }
+
+    private static void connect() {
+        String uri = EnvUtil.get("MONGODB_URI");
+        if (uri == null || uri.isEmpty() || uri.contains("<password>")) {
+            System.out.println("⚠️ MongoDB connection string not configured in .env. Patient notes are kept on this terminal only.");
+            return;
+        }
+
+        try {
+            maxPoolSize = EnvUtil.getInt("MONGODB_POOL_MAX_SIZE", 20);
+            MongoClientSettings settings = MongoClientSettings.builder()
+                    .applyConnectionString(new ConnectionString(uri))
+                    .applyToConnectionPoolSettings(pool -> pool
+                            .maxSize(maxPoolSize)
+                            .minSize(EnvUtil.getInt("MONGODB_POOL_MIN_SIZE", 1))
+                            .maxWaitTime(EnvUtil.getLong("MONGODB_POOL_MAX_WAIT_MS", 10_000), TimeUnit.MILLISECONDS)
+                            .maxConnectionIdleTime(EnvUtil.getLong("MONGODB_POOL_MAX_IDLE_MS", 300_000),
+                                    TimeUnit.MILLISECONDS)
+                            .addConnectionPoolListener(POOL_METRICS))
+                    .applyToSocketSettings(socket -> socket
+                            .connectTimeout(EnvUtil.getInt("MONGODB_CONNECT_TIMEOUT_MS", 10_000),
+                                    TimeUnit.MILLISECONDS))
+                    .applyToClusterSettings(cluster -> cluster
+                            .serverSelectionTimeout(EnvUtil.getLong("MONGODB_SERVER_SELECTION_TIMEOUT_MS", 10_000),
+                                    TimeUnit.MILLISECONDS)
+                            .addClusterListener(REACHABILITY))
+                    .build();
+            client = MongoClients.create(settings);
+            Runtime.getRuntime().addShutdownHook(new Thread(client::close, "mongo-client-shutdown"));
+
+            MongoDatabase database = client.getDatabase(EnvUtil.get("MONGODB_DATABASE", DEFAULT_DATABASE));
+            MongoCollection<Document> collection = database
+                    .getCollection(EnvUtil.get("MONGODB_COLLECTION", DEFAULT_NOTES_COLLECTION));
+            notesCollection = collection;
+            startIndexBuild(collection);
+        } catch (Exception e) {
+            // Only a malformed URI or setting fails here
+            System.err.println("❌ Failed to connect to MongoDB: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    private static void startIndexBuild(MongoCollection<Document> collection) {
+        Thread indexBuild = new Thread(() -> {
+            long backoffMs = INDEX_RETRY_BASE_MS;
+            while (true) {
+                try {
+                    ensureNoteIndexes(collection);
+                    System.out.println("✅ Connected to MongoDB Atlas successfully.");
+                    return;
+                } catch (RuntimeException e) {
+                    if (backoffMs == INDEX_RETRY_BASE_MS) {
+                        System.err.println("⚠️ MongoDB not reachable yet, will keep trying: " + e.getMessage());
+                    }
+                }
+                try {
+                    Thread.sleep(backoffMs);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                backoffMs = Math.min(backoffMs * 2, INDEX_RETRY_MAX_MS);
+            }
+        }, "mongo-note-indexes");
+        indexBuild.setDaemon(true);
+        indexBuild.start();
+    }
+
+    /**
+     * Notes are always looked up by patient, newest first, with the id
+     * breaking ties for paging; the index serves the filter, the order and
+     * plain patientId lookups. createIndex is a no-op when the index already
+     * exists.
+     */
+    private static void ensureNoteIndexes(MongoCollection<Document> collection) {
+        collection.createIndex(
+                Indexes.compoundIndex(Indexes.ascending("patientId"), Indexes.descending("createdAt"),
+                        Indexes.descending("_id")),
+                new IndexOptions().name("patientId_createdAt_id"));
+        dropIndexIfPresent(collection, "patientId_createdAt");
+    }
+
+    // Superseded indexes, which would otherwise cost every insert
+    private static void dropIndexIfPresent(MongoCollection<Document> collection, String name) {
+        for (Document index : collection.listIndexes()) {
+            if (name.equals(index.getString("name"))) {
+                collection.dropIndex(name);
+                return;
+            }
+        }
+    }
+
+    private static class Reachability implements ClusterListener {
+        private volatile boolean reachable;
+
+        @Override
+        public void clusterDescriptionChanged(ClusterDescriptionChangedEvent event) {
+            reachable = event.getNewDescription().hasReadableServer(ReadPreference.primary());
+        }
+    }
+
+    private static class PoolMetrics implements ConnectionPoolListener {
+        private final AtomicLong created = new AtomicLong();
+        private final AtomicLong closed = new AtomicLong();
+        private final AtomicLong checkedOut = new AtomicLong();
+        private final AtomicLong checkedIn = new AtomicLong();
+        private final AtomicLong checkOutFailures = new AtomicLong();
+        private final AtomicLong checkOutNanos = new AtomicLong();
+
+        @Override
+        public void connectionCreated(ConnectionCreatedEvent event) {
+            created.incrementAndGet();
+        }
+
+        @Override
+        public void connectionClosed(ConnectionClosedEvent event) {
+            closed.incrementAndGet();
+        }
+
+        @Override
+        public void connectionCheckedOut(ConnectionCheckedOutEvent event) {
+            checkedOut.incrementAndGet();
+            checkOutNanos.addAndGet(event.getElapsedTime(TimeUnit.NANOSECONDS));
+        }
+
+        @Override
+        public void connectionCheckedIn(ConnectionCheckedInEvent event) {
+            checkedIn.incrementAndGet();
+        }
+
+        @Override
+        public void connectionCheckOutFailed(ConnectionCheckOutFailedEvent event) {
+            checkOutFailures.incrementAndGet();
+        }
+
+        PoolStats snapshot(int maxSize) {
+            long out = checkedOut.get();
+            return new PoolStats(maxSize, (int) (created.get() - closed.get()), (int) (out - checkedIn.get()),
+                    created.get(), closed.get(), out, checkOutFailures.get(),
+                    out == 0 ? 0 : checkOutNanos.get() / out / 1_000);
+        }
+    }
+
+    /**
+     * Point-in-time counters for the MongoDB connection pool, summed over
+     * all servers.
+     */
+    public static class PoolStats {
+        private final int maxSize;
+        private final int openConnections;
+        private final int inUseConnections;
+        private final long connectionsCreated;
+        private final long connectionsClosed;
+        private final long checkOutCount;
+        private final long checkOutFailures;
+        private final long averageCheckOutMicros;
+
+        PoolStats(int maxSize, int openConnections, int inUseConnections, long connectionsCreated,
+                long connectionsClosed, long checkOutCount, long checkOutFailures, long averageCheckOutMicros) {
+            this.maxSize = maxSize;
+            this.openConnections = openConnections;
+            this.inUseConnections = inUseConnections;
+            this.connectionsCreated = connectionsCreated;
+            this.connectionsClosed = connectionsClosed;
+            this.checkOutCount = checkOutCount;
+            this.checkOutFailures = checkOutFailures;
+            this.averageCheckOutMicros = averageCheckOutMicros;
+        }
+
+        /**
+         * Per-server limit; 0 when MongoDB is not connected.
+         */
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public int getOpenConnections() {
+            return openConnections;
+        }
+
+        public int getInUseConnections() {
+            return inUseConnections;
+        }
+
+        public long getConnectionsCreated() {
+            return connectionsCreated;
+        }
+
+        public long getConnectionsClosed() {
+            return connectionsClosed;
+        }
+
+        public long getCheckOutCount() {
+            return checkOutCount;
+        }
+
+        public long getCheckOutFailures() {
+            return checkOutFailures;
+        }
+
+        public long getAverageCheckOutMicros() {
+            return averageCheckOutMicros;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("mongo pool: open=%d inUse=%d max=%d created=%d closed=%d checkOuts=%d failures=%d avgCheckOut=%dus",
+                    openConnections, inUseConnections, maxSize, connectionsCreated, connectionsClosed,
+                    checkOutCount, checkOutFailures, averageCheckOutMicros);
+        }
+    }
+}
@@ -1,33 +1,168 @@
 package com.hospital.util;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Records how long service operations take.
+ *
+ * Callers only enqueue a measurement on a lock-free queue; a background
+ * writer drains it at a fixed interval and appends the batch to
+ * performance_report.csv through one long-lived buffered writer. If the
+ * queue is full, measurements are dropped rather than blocking the caller.
+ * Every measurement is also added to the {@link MetricsRegistry} histograms.
+ */
 public class PerformanceLogger {
 
     private static final String REPORT_FILE = "performance_report.csv";
+    private static final String HEADER = "Timestamp,Operation,Duration_ms";
+    private static final int QUEUE_CAPACITY = 10_000;
+    private static final long FLUSH_INTERVAL_MS = 1000;
+    private static final boolean CONSOLE_ECHO = Boolean.parseBoolean(EnvUtil.get("PERF_LOG_CONSOLE", "true"));
 
-    public static void log(String operation, long startTime) {
-        long duration = System.currentTimeMillis() - startTime;
-        String message = String.format("[Performance] %s completed in %d ms", operation, duration);
-        System.out.println(message);
+    private static final ConcurrentLinkedQueue<Measurement> QUEUE = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger QUEUED = new AtomicInteger();
+    private static final AtomicLong DROPPED = new AtomicLong();
 
-        // Append to report file
+    // Only touched while holding the class lock (drain)
+    private static BufferedWriter writer;
+
+    static {
+        ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "performance-log-writer");
+            t.setDaemon(true);
+            return t;
+        });
+        flusher.scheduleWithFixedDelay(PerformanceLogger::drain,
+                FLUSH_INTERVAL_MS, FLUSH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            flusher.shutdownNow();
+            drain();
+            closeWriter();
+        }, "performance-log-shutdown"));
+    }
+
+    private PerformanceLogger() {
+    }
+
+    /**
+     * Records an operation that started at the given System.nanoTime().
+     */
+    public static void log(String operation, long startNanos) {
+        record(operation, System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Records an operation with an already measured duration.
+     */
+    public static void record(String operation, long durationNanos) {
+        MetricsRegistry.record(operation, durationNanos);
+
+        if (QUEUED.incrementAndGet() > QUEUE_CAPACITY) {
+            QUEUED.decrementAndGet();
+            DROPPED.incrementAndGet();
+            return;
+        }
+        QUEUE.offer(new Measurement(System.currentTimeMillis(), operation, durationNanos));
+    }
+
+    /**
+     * Writes out everything recorded so far. Call before reading the report
+     * file to make sure it is up to date.
+     */
+    public static void flush() {
+        drain();
+    }
+
+    public static long getDroppedCount() {
+        return DROPPED.get();
+    }
+
+    private static synchronized void drain() {
+        if (QUEUE.isEmpty()) {
+            return;
+        }
         try {
-            Path path = Paths.get(REPORT_FILE);
-            String timestamp = LocalDateTime.now().toString();
-            String csvLine = String.format("%s,%s,%d%n", timestamp, operation, duration);
+            BufferedWriter out = openWriter();
+            StringBuilder console = CONSOLE_ECHO ? new StringBuilder() : null;
 
-            if (!Files.exists(path)) {
-                Files.writeString(path, "Timestamp,Operation,Duration_ms\n");
+            Measurement m;
+            while ((m = QUEUE.poll()) != null) {
+                QUEUED.decrementAndGet();
+                long durationMs = TimeUnit.NANOSECONDS.toMillis(m.durationNanos);
+                String timestamp = LocalDateTime.ofInstant(Instant.ofEpochMilli(m.wallClockMillis),
+                        ZoneId.systemDefault()).toString();
+                out.write(timestamp);
+                out.write(',');
+                out.write(m.operation);
+                out.write(',');
+                out.write(Long.toString(durationMs));
+                out.newLine();
+
+                if (console != null) {
+                    console.append(String.format("[Performance] %s completed in %.3f ms%n",
+                            m.operation, m.durationNanos / 1_000_000.0));
+                }
+            }
+            out.flush();
+
+            if (console != null) {
+                System.out.print(console);
             }
-            Files.writeString(path, csvLine, StandardOpenOption.APPEND);
         } catch (IOException e) {
             System.err.println("Failed to write to performance report: " + e.getMessage());
+            closeWriter();
+        }
+    }
+
+    private static BufferedWriter openWriter() throws IOException {
+        if (writer == null) {
+            Path path = Paths.get(REPORT_FILE);
+            boolean needsHeader = !Files.exists(path) || Files.size(path) == 0;
+            writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            if (needsHeader) {
+                writer.write(HEADER);
+                writer.newLine();
+            }
+        }
+        return writer;
+    }
+
+    private static synchronized void closeWriter() {
+        if (writer != null) {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                // Nothing left to do on shutdown
+            }
+            writer = null;
+        }
+    }
+
+    private static class Measurement {
+        private final long wallClockMillis;
+        private final String operation;
+        private final long durationNanos;
+
+        Measurement(long wallClockMillis, String operation, long durationNanos) {
+            this.wallClockMillis = wallClockMillis;
+            this.operation = operation;
+            this.durationNanos = durationNanos;
         }
     }
 }
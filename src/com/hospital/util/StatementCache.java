@@ -0,0 +1,186 @@
+package com.hospital.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * LRU cache of prepared statements for a single pooled connection, keyed by
+ * SQL text.
+ *
+ * Because the same PreparedStatement object is reused across DAO calls, the
+ * PostgreSQL driver sees repeated executions and switches hot statements to
+ * server-side prepared statements once they pass its prepareThreshold. The
+ * statements handed out are proxies whose close() resets them and puts them
+ * back in the cache.
+ *
+ * Not thread-safe: the pool only lets one caller use a connection at a time.
+ */
+class StatementCache {
+
+    private final Connection physical;
+    private final int maxSize;
+    private final AtomicLong hits;
+    private final AtomicLong misses;
+    private final AtomicLong evictions;
+    private final Map<String, CachedStatement> entries;
+
+    StatementCache(Connection physical, int maxSize, AtomicLong hits, AtomicLong misses, AtomicLong evictions) {
+        this.physical = physical;
+        this.maxSize = maxSize;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedStatement> eldest) {
+                if (size() > StatementCache.this.maxSize) {
+                    StatementCache.this.evictions.incrementAndGet();
+                    eldest.getValue().evict();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns a cached statement for the SQL, preparing it on a miss.
+     *
+     * @param autoGeneratedKeys Statement.RETURN_GENERATED_KEYS, or -1 for a
+     *                          plain prepareStatement(sql)
+     */
+    PreparedStatement prepare(String sql, int autoGeneratedKeys) throws SQLException {
+        String key = autoGeneratedKeys == Statement.RETURN_GENERATED_KEYS ? "K:" + sql : sql;
+        CachedStatement cached = entries.get(key);
+
+        if (cached != null && !cached.inUse) {
+            hits.incrementAndGet();
+            cached.inUse = true;
+            return cached.handle();
+        }
+
+        misses.incrementAndGet();
+        PreparedStatement statement = autoGeneratedKeys == -1
+                ? physical.prepareStatement(sql)
+                : physical.prepareStatement(sql, autoGeneratedKeys);
+
+        if (cached != null) {
+            // Same SQL is already open on this connection (nested use); hand
+            // out an uncached statement rather than sharing one
+            return statement;
+        }
+
+        CachedStatement created = new CachedStatement(statement);
+        created.inUse = true;
+        entries.put(key, created);
+        return created.handle();
+    }
+
+    /**
+     * Closes every cached statement. Called before the physical connection is
+     * closed.
+     */
+    void closeAll() {
+        for (CachedStatement cached : entries.values()) {
+            cached.evict();
+        }
+        entries.clear();
+    }
+
+    private static class CachedStatement {
+        private final PreparedStatement statement;
+        private boolean inUse;
+        private boolean evicted;
+
+        CachedStatement(PreparedStatement statement) {
+            this.statement = statement;
+        }
+
+        PreparedStatement handle() {
+            return (PreparedStatement) Proxy.newProxyInstance(
+                    PreparedStatement.class.getClassLoader(),
+                    new Class<?>[] { PreparedStatement.class },
+                    new StatementHandle(this));
+        }
+
+        void evict() {
+            evicted = true;
+            if (!inUse) {
+                closeQuietly();
+            }
+        }
+
+        void giveBack() {
+            inUse = false;
+            if (evicted) {
+                closeQuietly();
+                return;
+            }
+            try {
+                statement.clearParameters();
+                statement.clearBatch();
+                statement.setFetchSize(0);
+                statement.setMaxRows(0);
+            } catch (SQLException e) {
+                evicted = true;
+                closeQuietly();
+            }
+        }
+
+        private void closeQuietly() {
+            try {
+                statement.close();
+            } catch (SQLException e) {
+                // Statement is being discarded anyway
+            }
+        }
+    }
+
+    private static class StatementHandle implements InvocationHandler {
+        private final CachedStatement cached;
+        private boolean returned = false;
+
+        StatementHandle(CachedStatement cached) {
+            this.cached = cached;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!returned) {
+                        returned = true;
+                        cached.giveBack();
+                    }
+                    return null;
+                case "isClosed":
+                    return returned || cached.statement.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+
+            if (returned) {
+                throw new SQLException("Statement has already been closed");
+            }
+
+            try {
+                return method.invoke(cached.statement, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.hospital.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index from words to keys.
+ *
+ * Texts are split into lowercase alphanumeric tokens. A search matches the
+ * keys whose text has, for every word of the query, a token starting with
+ * that word, so "amox twice" finds "Amoxicillin - take twice daily". Each
+ * query word is resolved with a range lookup on the sorted token map and the
+ * resulting posting sets are intersected, smallest first. Updates are
+ * incremental and thread-safe.
+ */
+public class TokenIndex<K> {
+
+    private final NavigableMap<String, Set<K>> postings = new TreeMap<>();
+    private final Map<K, Set<String>> tokensByKey = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Indexes the texts under the key, replacing whatever was indexed for it
+     * before. Null texts are ignored.
+     */
+    public void put(K key, String... texts) {
+        Set<String> tokens = new HashSet<>();
+        for (String text : texts) {
+            tokens.addAll(tokenize(text));
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(key);
+            tokensByKey.put(key, tokens);
+            for (String token : tokens) {
+                postings.computeIfAbsent(token, t -> new HashSet<>()).add(key);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(K key) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(key);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeAll(Collection<? extends K> keys) {
+        lock.writeLock().lock();
+        try {
+            for (K key : keys) {
+                removeLocked(key);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            tokensByKey.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return tokensByKey.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the keys matching every word of the query, in no particular
+     * order. A query without words matches nothing.
+     */
+    public Set<K> search(String query) {
+        Set<String> words = tokenize(query);
+        if (words.isEmpty()) {
+            return Set.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            List<Set<K>> matches = new ArrayList<>(words.size());
+            for (String word : words) {
+                Set<K> keys = keysWithPrefix(word);
+                if (keys.isEmpty()) {
+                    return Set.of();
+                }
+                matches.add(keys);
+            }
+            matches.sort(Comparator.comparingInt(Set::size));
+
+            Set<K> result = new HashSet<>(matches.get(0));
+            for (int i = 1; i < matches.size() && !result.isEmpty(); i++) {
+                result.retainAll(matches.get(i));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Set<K> keysWithPrefix(String prefix) {
+        // Keys under "amox", "amoxicillin", ... ; a single exact token needs
+        // no copy
+        NavigableMap<String, Set<K>> range = postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+        if (range.size() == 1) {
+            return range.firstEntry().getValue();
+        }
+        Set<K> keys = new HashSet<>();
+        for (Set<K> posting : range.values()) {
+            keys.addAll(posting);
+        }
+        return keys;
+    }
+
+    private void removeLocked(K key) {
+        Set<String> tokens = tokensByKey.remove(key);
+        if (tokens == null) {
+            return;
+        }
+        for (String token : tokens) {
+            Set<K> keys = postings.get(token);
+            if (keys != null) {
+                keys.remove(key);
+                if (keys.isEmpty()) {
+                    postings.remove(token);
+                }
+            }
+        }
+    }
+
+    private static Set<String> tokenize(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,296 @@
+package com.hospital.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index from character trigrams to keys, for
+ * case-insensitive substring and typo-tolerant search over short texts such
+ * as names.
+ *
+ * Each word is indexed like pg_trgm does it, padded with two spaces in front
+ * and one behind, so a short query still matches word prefixes. A search
+ * only visits the keys sharing a trigram with the query. Results are ranked:
+ * texts containing the query at the start of a word first, then texts
+ * containing it anywhere, then texts whose trigram overlap with the query
+ * reaches the minimum similarity. Updates are incremental and thread-safe.
+ */
+public class TrigramIndex<K> {
+
+    public static final double DEFAULT_MIN_SIMILARITY = 0.5;
+
+    private final double minSimilarity;
+    private final Map<String, Set<K>> postings = new HashMap<>();
+    private final Map<K, String> texts = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Higher score first, then shorter text, then alphabetical
+    @SuppressWarnings("rawtypes")
+    private static final Comparator<Match> RANKING = (a, b) -> {
+        int c = Double.compare(b.score, a.score);
+        if (c == 0) {
+            c = Integer.compare(a.text.length(), b.text.length());
+        }
+        return c != 0 ? c : a.text.compareTo(b.text);
+    };
+
+    public TrigramIndex() {
+        this(DEFAULT_MIN_SIMILARITY);
+    }
+
+    /**
+     * @param minSimilarity share of the query's trigrams a text must contain
+     *                      to match when it does not contain the query itself
+     */
+    public TrigramIndex(double minSimilarity) {
+        this.minSimilarity = minSimilarity;
+    }
+
+    /**
+     * Indexes the text under the key, replacing any text indexed for it
+     * before.
+     */
+    public void put(K key, String text) {
+        String normalized = normalize(text);
+        lock.writeLock().lock();
+        try {
+            String previous = texts.put(key, normalized);
+            if (normalized.equals(previous)) {
+                return;
+            }
+            if (previous != null) {
+                unindex(key, previous);
+            }
+            for (String trigram : trigrams(normalized, true)) {
+                postings.computeIfAbsent(trigram, t -> new HashSet<>()).add(key);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(K key) {
+        lock.writeLock().lock();
+        try {
+            String previous = texts.remove(key);
+            if (previous != null) {
+                unindex(key, previous);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            texts.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return texts.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to limit keys matching the query, best match first.
+     */
+    public List<K> search(String query, int limit) {
+        String normalized = normalize(query);
+        List<String> queryTrigrams = new ArrayList<>(trigrams(normalized, false));
+        if (queryTrigrams.isEmpty() || limit < 1) {
+            return List.of();
+        }
+
+        PriorityQueue<Match<K>> best = new PriorityQueue<>(RANKING.reversed());
+        lock.readLock().lock();
+        try {
+            List<Set<K>> lists = new ArrayList<>(queryTrigrams.size());
+            for (String trigram : queryTrigrams) {
+                lists.add(postings.getOrDefault(trigram, Set.of()));
+            }
+
+            // Texts containing the query: intersect the postings they must
+            // all be in, starting from the rarest
+            List<Set<K>> required = new ArrayList<>();
+            for (String trigram : requiredTrigrams(normalized)) {
+                required.add(postings.getOrDefault(trigram, Set.of()));
+            }
+            if (required.isEmpty()) {
+                // A single word of one or two letters: word prefixes only
+                required = new ArrayList<>(lists);
+            }
+            required.sort(Comparator.comparingInt(Set::size));
+
+            // Every containing text has all the query's trigrams, bar the
+            // padded ones of the first word for a match inside a word, so
+            // the position of the match is all that ranks them
+            for (K key : required.get(0)) {
+                if (inAll(key, required)) {
+                    String text = texts.get(key);
+                    int at = text.indexOf(normalized);
+                    if (at >= 0) {
+                        boolean wordStart = at == 0 || text.charAt(at - 1) == ' ';
+                        offer(best, limit, new Match<>(key, text, wordStart ? 3 : 2));
+                    }
+                }
+            }
+
+            // Near misses rank below every containing text, so only look for
+            // them when there is room left. A text sharing at least minShared
+            // of the n query trigrams must appear in one of the n - minShared
+            // + 1 rarest lists.
+            if (best.size() < limit) {
+                int minShared = Math.max(1, (int) Math.ceil(minSimilarity * lists.size()));
+                List<Set<K>> byRarity = new ArrayList<>(lists);
+                byRarity.sort(Comparator.comparingInt(Set::size));
+                List<Set<K>> scanned = byRarity.subList(0, lists.size() - minShared + 1);
+                for (int i = 0; i < scanned.size(); i++) {
+                    for (K key : scanned.get(i)) {
+                        if (inAny(key, scanned.subList(0, i))) {
+                            // Already seen in a rarer list
+                            continue;
+                        }
+                        int shared = countContaining(key, lists);
+                        String text = texts.get(key);
+                        if (shared >= minShared && !text.contains(normalized)) {
+                            offer(best, limit, new Match<>(key, text, (double) shared / lists.size()));
+                        }
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Match<K>> matches = new ArrayList<>(best);
+        matches.sort(RANKING);
+        List<K> results = new ArrayList<>(matches.size());
+        for (Match<K> match : matches) {
+            results.add(match.key);
+        }
+        return results;
+    }
+
+    private static <K> boolean inAll(K key, List<Set<K>> lists) {
+        for (Set<K> list : lists) {
+            if (!list.contains(key)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static <K> boolean inAny(K key, List<Set<K>> lists) {
+        for (Set<K> list : lists) {
+            if (list.contains(key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static <K> int countContaining(K key, List<Set<K>> lists) {
+        int count = 0;
+        for (Set<K> list : lists) {
+            if (list.contains(key)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // Keeps the best limit matches; the head of the queue is the worst kept
+    private static <K> void offer(PriorityQueue<Match<K>> best, int limit, Match<K> match) {
+        if (best.size() < limit) {
+            best.add(match);
+        } else if (RANKING.compare(match, best.peek()) < 0) {
+            best.poll();
+            best.add(match);
+        }
+    }
+
+    private void unindex(K key, String text) {
+        for (String trigram : trigrams(text, true)) {
+            Set<K> keys = postings.get(trigram);
+            if (keys != null) {
+                keys.remove(key);
+                if (keys.isEmpty()) {
+                    postings.remove(trigram);
+                }
+            }
+        }
+    }
+
+    private static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.toLowerCase(Locale.ROOT).replaceAll("[^\\p{L}\\p{N}]+", " ").trim();
+    }
+
+    /**
+     * Trigrams of each word of an already normalised text. Query words are
+     * not padded at the end, so that a partial last word still matches as a
+     * prefix.
+     */
+    private static Set<String> trigrams(String text, boolean padEnd) {
+        Set<String> trigrams = new LinkedHashSet<>();
+        if (text.isEmpty()) {
+            return trigrams;
+        }
+        for (String word : text.split(" ")) {
+            String padded = "  " + word + (padEnd ? " " : "");
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                trigrams.add(padded.substring(i, i + 3));
+            }
+        }
+        return trigrams;
+    }
+
+    /**
+     * Trigrams every text containing the query has: those of the query
+     * except the padded ones of its first word, which a match inside a word
+     * lacks.
+     */
+    private static Set<String> requiredTrigrams(String query) {
+        Set<String> trigrams = new LinkedHashSet<>();
+        String[] words = query.split(" ");
+        for (int w = 0; w < words.length; w++) {
+            String padded = w == 0 ? words[w] : "  " + words[w];
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                trigrams.add(padded.substring(i, i + 3));
+            }
+        }
+        return trigrams;
+    }
+
+    private static class Match<K> {
+        private final K key;
+        private final String text;
+        private final double score;
+
+        Match(K key, String text, double score) {
+            this.key = key;
+            this.text = text;
+            this.score = score;
+        }
+    }
+}
@@ -1,5 +1,9 @@
 package com.hospital.util;
 
+import com.hospital.model.Patient;
+
+import java.util.ArrayList;
+import java.util.List;
 import java.util.regex.Pattern;
 
 /**
@@ -46,4 +50,37 @@ public class ValidationUtil {
     public static boolean isValidAddress(String address) {
         return address != null && ADDRESS_PATTERN.matcher(address).matches();
     }
+
+    /**
+     * Validates a patient record using the same rules as the patient form.
+     *
+     * @return the list of problems, empty if the patient is valid
+     */
+    public static List<String> validatePatient(Patient patient) {
+        List<String> errors = new ArrayList<>();
+        if (!isValidName(patient.getFirstName())) {
+            errors.add("Invalid first name");
+        }
+        if (!isValidName(patient.getLastName())) {
+            errors.add("Invalid last name");
+        }
+        if (patient.getGender() == null || patient.getGender().isEmpty()) {
+            errors.add("Gender is required");
+        }
+        if (patient.getBirthDate() == null) {
+            errors.add("Date of birth is required");
+        }
+        if (!isValidEmail(patient.getEmail())) {
+            errors.add("Invalid email");
+        }
+        String phone = patient.getPhone();
+        if (phone != null && !phone.isEmpty() && !isValidPhone(phone)) {
+            errors.add("Invalid phone");
+        }
+        String address = patient.getAddress();
+        if (address != null && !address.isEmpty() && !isValidAddress(address)) {
+            errors.add("Invalid address");
+        }
+        return errors;
+    }
 }
@@ -11,6 +11,9 @@ DROP TABLE IF EXISTS patients;
 DROP TABLE IF EXISTS departments;
 DROP TABLE IF EXISTS users;
 
+-- Trigram matching for substring name search
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
 -- Create Departments Table
 CREATE TABLE departments (
     id SERIAL PRIMARY KEY,
@@ -119,7 +122,27 @@ CREATE TABLE patient_feedback (
 
 -- Additional Indexes
 CREATE INDEX idx_inventory_name ON medical_inventory(item_name);
-CREATE INDEX idx_prescriptions_patient ON prescriptions(patient_id);
+CREATE INDEX idx_prescription_items_prescription ON prescription_items(prescription_id);
+
+-- Keyset Pagination Indexes (sort column, id)
+CREATE INDEX idx_patients_last_name_id ON patients(last_name, id);
+CREATE INDEX idx_patients_first_name_id ON patients(first_name, id);
+CREATE INDEX idx_appointments_date_id ON appointments(appointment_date, id);
+CREATE INDEX idx_inventory_name_id ON medical_inventory(item_name, id);
+CREATE INDEX idx_feedback_date_id ON patient_feedback(feedback_date, id);
+
+-- Appointment Search Indexes (the doctor index also covers doctor_id alone)
+CREATE INDEX idx_appointments_patient ON appointments(patient_id);
+CREATE INDEX idx_appointments_doctor_date ON appointments(doctor_id, appointment_date);
+
+-- Role-Scoped Listing Indexes (what a doctor or patient may see, newest first)
+CREATE INDEX idx_prescriptions_patient_date ON prescriptions(patient_id, prescription_date);
+CREATE INDEX idx_prescriptions_doctor_date ON prescriptions(doctor_id, prescription_date);
+CREATE INDEX idx_feedback_patient_date ON patient_feedback(patient_id, feedback_date);
+
+-- Trigram Indexes for LIKE '%...%' name search (patient search, appointment search)
+CREATE INDEX idx_patients_full_name_trgm ON patients USING GIN (LOWER(first_name || ' ' || last_name) gin_trgm_ops);
+CREATE INDEX idx_doctors_full_name_trgm ON doctors USING GIN (LOWER(first_name || ' ' || last_name) gin_trgm_ops);
 
 -- Sample Data for Inventory
 INSERT INTO medical_inventory (item_name, category, quantity, unit_price) VALUES